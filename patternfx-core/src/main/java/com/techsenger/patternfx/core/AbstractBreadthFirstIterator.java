@@ -16,24 +16,42 @@
 
 package com.techsenger.patternfx.core;
 
-import java.util.ArrayDeque;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Queue;
-import javafx.util.Pair;
 
 /**
+ * A breadth-first iterator. Pending nodes and their depths are kept in two parallel arrays used as a ring buffer,
+ * so a traversal allocates nothing except when the arrays grow. The children of a node are read when the node is
+ * returned, before the caller handles it, and {@link #skipChildren()} drops them to prune its subtree.
  *
  * @author Pavel Castornii
  */
 public abstract class AbstractBreadthFirstIterator<T, S> implements TreeIterator<T> {
 
-    private final Queue<Pair<S, Integer>> queue = new ArrayDeque<>(32);
+    private static final int INITIAL_CAPACITY = 32;
+
+    private Object[] nodes = new Object[INITIAL_CAPACITY];
+
+    private int[] depths = new int[INITIAL_CAPACITY];
+
+    /**
+     * The index of the first node, the capacity is always a power of two.
+     */
+    private int head;
+
+    private int size;
 
     private int currentDepth = -1;
 
+    private int maxDepth = Integer.MAX_VALUE;
+
+    /**
+     * The number of the children of the last returned node that were added to the pending nodes.
+     */
+    private int addedChildCount;
+
     protected AbstractBreadthFirstIterator(S root) {
-        queue.offer(new Pair<>(root, 0));
+        offer(root, 0);
     }
 
     @Override
@@ -44,9 +62,33 @@ public abstract class AbstractBreadthFirstIterator<T, S> implements TreeIterator
         return currentDepth;
     }
 
+    @Override
+    public void skipChildren() {
+        if (currentDepth == -1) {
+            throw new IllegalStateException("next() hasn't been called yet");
+        }
+        for (int i = 0; i < addedChildCount; i++) {
+            removeLast();
+        }
+        addedChildCount = 0;
+    }
+
+    @Override
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    @Override
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Max depth can't be negative");
+        }
+        this.maxDepth = maxDepth;
+    }
+
     @Override
     public boolean hasNext() {
-        return !queue.isEmpty();
+        return size != 0;
     }
 
     @Override
@@ -54,18 +96,59 @@ public abstract class AbstractBreadthFirstIterator<T, S> implements TreeIterator
         if (!hasNext()) {
             throw new NoSuchElementException();
         }
-
-        var pair = queue.poll();
-        var node = pair.getKey();
-        currentDepth = pair.getValue();
-        List<S> children = getChildren(node);
-        for (S child : children) {
-            queue.offer(new Pair<>(child, currentDepth + 1));
-        }
+        @SuppressWarnings("unchecked")
+        S node = (S) nodes[head];
+        nodes[head] = null;
+        currentDepth = depths[head];
+        head = (head + 1) & (nodes.length - 1);
+        size--;
+        addChildren(node);
         return map(node);
     }
 
-    protected abstract List<S> getChildren(S parent);
+    protected abstract List<? extends S> getChildren(S parent);
 
     protected abstract T map(S value);
+
+    private void addChildren(S node) {
+        addedChildCount = 0;
+        if (currentDepth >= maxDepth) {
+            return;
+        }
+        var children = getChildren(node);
+        int childDepth = currentDepth + 1;
+        for (int i = 0; i < children.size(); i++) {
+            offer(children.get(i), childDepth);
+        }
+        addedChildCount = children.size();
+    }
+
+    private void removeLast() {
+        size--;
+        nodes[(head + size) & (nodes.length - 1)] = null;
+    }
+
+    private void offer(S node, int depth) {
+        if (size == nodes.length) {
+            grow();
+        }
+        int tail = (head + size) & (nodes.length - 1);
+        nodes[tail] = node;
+        depths[tail] = depth;
+        size++;
+    }
+
+    private void grow() {
+        int capacity = nodes.length;
+        var newNodes = new Object[capacity << 1];
+        var newDepths = new int[capacity << 1];
+        int firstPart = capacity - head;
+        System.arraycopy(nodes, head, newNodes, 0, firstPart);
+        System.arraycopy(nodes, 0, newNodes, firstPart, head);
+        System.arraycopy(depths, head, newDepths, 0, firstPart);
+        System.arraycopy(depths, 0, newDepths, firstPart, head);
+        nodes = newNodes;
+        depths = newDepths;
+        head = 0;
+    }
 }
@@ -19,11 +19,43 @@ package com.techsenger.patternfx.core;
 import java.io.Serializable;
 
 /**
+ * The base class of component histories.
+ *
+ * <p>A history can track which of its fields were changed since it was restored or last persisted. To enable
+ * tracking, a subclass overrides {@link #isDirtyTracked()}, gives every field an index from 0 to 63 within its aspect
+ * (data or appearance) and marks the field as dirty in its setter:
+ * <pre>{@code
+ * public void setText(String text) {
+ *     if (!Objects.equals(this.text, text)) {
+ *         this.text = text;
+ *         markDataDirty(TEXT_FIELD);
+ *     }
+ * }
+ * }</pre>
+ * Components don't pass a clean history to the {@link HistorySink}, so closing a component that wasn't changed
+ * doesn't write anything. A history that doesn't track its fields is always dirty.
  *
  * @author Pavel Castornii
  */
 public abstract class AbstractComponentHistory implements Serializable {
 
+    private static final long serialVersionUID = 8309634705224824164L;
+
+    private static final int MAX_FIELD_COUNT = Long.SIZE;
+
+    private static long fieldBit(int field) {
+        if (field < 0 || field >= MAX_FIELD_COUNT) {
+            throw new IllegalArgumentException("Field index must be between 0 and 63");
+        }
+        return 1L << field;
+    }
+
+    private boolean isNew = true;
+
+    private transient long dirtyDataFields;
+
+    private transient long dirtyAppearanceFields;
+
     /**
      * Returns whether this history instance is new, meaning it was newly created and has not yet been used to
      * save or restore any component state. A new history contains no previously stored data and should not be
@@ -34,7 +66,108 @@ public abstract class AbstractComponentHistory implements Serializable {
      *
      * @return {@code true} if this history is new and has not yet been used, {@code false} otherwise
      */
-    public abstract boolean isNew();
+    public boolean isNew() {
+        return isNew;
+    }
+
+    /**
+     * Sets whether this history is new. The flag is cleared when the component state is saved into this history and
+     * when the history is decoded by a {@link HistoryCodec}.
+     *
+     * @param value {@code true} if the history is new, otherwise {@code false}
+     */
+    protected void setNew(boolean value) {
+        this.isNew = value;
+    }
+
+    /**
+     * Returns whether this history tracks the changes of its fields. Subclasses that mark their fields as dirty must
+     * override this method and return {@code true}.
+     *
+     * @return {@code false} by default
+     */
+    public boolean isDirtyTracked() {
+        return false;
+    }
+
+    /**
+     * Returns whether this history has changes that were not persisted.
+     *
+     * @return {@code true} if any field is dirty or if the history doesn't track its fields
+     */
+    public boolean isDirty() {
+        return !isDirtyTracked() || (dirtyDataFields | dirtyAppearanceFields) != 0;
+    }
+
+    /**
+     * Returns whether any data field is dirty or the history doesn't track its fields.
+     */
+    public boolean isDataDirty() {
+        return !isDirtyTracked() || dirtyDataFields != 0;
+    }
+
+    /**
+     * Returns whether any appearance field is dirty or the history doesn't track its fields.
+     */
+    public boolean isAppearanceDirty() {
+        return !isDirtyTracked() || dirtyAppearanceFields != 0;
+    }
+
+    /**
+     * Returns the bit mask of the dirty data fields, bit {@code i} corresponds to the field with index {@code i}.
+     */
+    public long getDirtyDataFields() {
+        return dirtyDataFields;
+    }
+
+    /**
+     * Returns the bit mask of the dirty appearance fields, bit {@code i} corresponds to the field with index
+     * {@code i}.
+     */
+    public long getDirtyAppearanceFields() {
+        return dirtyAppearanceFields;
+    }
+
+    /**
+     * Returns whether the history must be persisted according to the policy.
+     *
+     * @param policy the history policy of the component
+     * @return {@code true} if the aspects included in the policy are dirty
+     */
+    public boolean isDirty(HistoryPolicy policy) {
+        return switch (policy) {
+            case NONE -> false;
+            case DATA -> isDataDirty();
+            case APPEARANCE -> isAppearanceDirty();
+            case ALL -> isDirty();
+        };
+    }
+
+    /**
+     * Marks all the fields as clean. This method is called after the history was restored or persisted.
+     */
+    public void clearDirty() {
+        dirtyDataFields = 0;
+        dirtyAppearanceFields = 0;
+    }
+
+    /**
+     * Marks the data field as dirty.
+     *
+     * @param field the index of the field from 0 to 63
+     */
+    protected void markDataDirty(int field) {
+        dirtyDataFields |= fieldBit(field);
+    }
+
+    /**
+     * Marks the appearance field as dirty.
+     *
+     * @param field the index of the field from 0 to 63
+     */
+    protected void markAppearanceDirty(int field) {
+        dirtyAppearanceFields |= fieldBit(field);
+    }
 
     /**
      * Method called before the component is serialized. This can be used to prepare the object's state
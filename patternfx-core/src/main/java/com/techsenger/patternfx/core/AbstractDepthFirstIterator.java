@@ -16,24 +16,38 @@
 
 package com.techsenger.patternfx.core;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
-import javafx.util.Pair;
 
 /**
+ * A pre-order depth-first iterator. Pending nodes and their depths are kept in two parallel arrays used as a stack,
+ * so a traversal allocates nothing except when the arrays grow. The children of a node are read when the node is
+ * returned, before the caller handles it, and {@link #skipChildren()} drops them to prune its subtree.
  *
  * @author Pavel Castornii
  */
 public abstract class AbstractDepthFirstIterator<T, S> implements TreeIterator<T> {
 
-    private final Deque<Pair<S, Integer>> stack = new ArrayDeque<>(32);
+    private static final int INITIAL_CAPACITY = 32;
+
+    private Object[] nodes = new Object[INITIAL_CAPACITY];
+
+    private int[] depths = new int[INITIAL_CAPACITY];
+
+    private int size;
 
     private int currentDepth = -1;
 
+    private int maxDepth = Integer.MAX_VALUE;
+
+    /**
+     * The number of the children of the last returned node that were added to the pending nodes.
+     */
+    private int addedChildCount;
+
     protected AbstractDepthFirstIterator(S root) {
-        stack.addFirst(new Pair<>(root, 0));
+        push(root, 0);
     }
 
     @Override
@@ -44,9 +58,33 @@ public abstract class AbstractDepthFirstIterator<T, S> implements TreeIterator<T
         return currentDepth;
     }
 
+    @Override
+    public void skipChildren() {
+        if (currentDepth == -1) {
+            throw new IllegalStateException("next() hasn't been called yet");
+        }
+        for (int i = 0; i < addedChildCount; i++) {
+            removeLast();
+        }
+        addedChildCount = 0;
+    }
+
+    @Override
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    @Override
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Max depth can't be negative");
+        }
+        this.maxDepth = maxDepth;
+    }
+
     @Override
     public boolean hasNext() {
-        return !stack.isEmpty();
+        return size != 0;
     }
 
     @Override
@@ -54,18 +92,44 @@ public abstract class AbstractDepthFirstIterator<T, S> implements TreeIterator<T
         if (!hasNext()) {
             throw new NoSuchElementException();
         }
-        var pair = stack.removeFirst();
-        S node = pair.getKey();
-        this.currentDepth = pair.getValue();
+        size--;
+        @SuppressWarnings("unchecked")
+        S node = (S) nodes[size];
+        nodes[size] = null;
+        this.currentDepth = depths[size];
+        addChildren(node);
+        return map(node);
+    }
+
+    protected abstract List<? extends S> getChildren(S parent);
+
+    protected abstract T map(S value);
+
+    private void addChildren(S node) {
+        addedChildCount = 0;
+        if (currentDepth >= maxDepth) {
+            return;
+        }
         var children = getChildren(node);
+        int childDepth = currentDepth + 1;
         for (int i = children.size() - 1; i >= 0; i--) {
-            S child = children.get(i);
-            stack.addFirst(new Pair<>(child, currentDepth + 1));
+            push(children.get(i), childDepth);
         }
-        return map(node);
+        addedChildCount = children.size();
     }
 
-    protected abstract List<S> getChildren(S parent);
+    private void removeLast() {
+        size--;
+        nodes[size] = null;
+    }
 
-    protected abstract T map(S value);
+    private void push(S node, int depth) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size << 1);
+            depths = Arrays.copyOf(depths, size << 1);
+        }
+        nodes[size] = node;
+        depths[size] = depth;
+        size++;
+    }
 }
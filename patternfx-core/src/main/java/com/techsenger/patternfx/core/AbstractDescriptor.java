@@ -17,6 +17,7 @@
 package com.techsenger.patternfx.core;
 
 import com.techsenger.annotations.Nullable;
+import java.util.HexFormat;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.function.Function;
@@ -28,41 +29,84 @@ import javafx.beans.property.ReadOnlyObjectWrapper;
  */
 public abstract class AbstractDescriptor implements DescriptorBase {
 
-    private static Function<DescriptorBase, String> logPrefixResolver = (d) -> "[" + d.getFullName() + "]";
+    /**
+     * The log prefix together with the resolver that created it. Both values are kept in one immutable object, so
+     * a thread can never see a prefix paired with a resolver that did not create it.
+     */
+    private record LogPrefix(String value, Function<DescriptorBase, String> owner) { }
+
+    private static volatile Function<DescriptorBase, String> logPrefixResolver = (d) -> "[" + d.getFullName() + "]";
+
+    private static volatile ComponentIdGenerator idGenerator = new RandomComponentIdGenerator();
 
     public static Function<DescriptorBase, String> getLogPrefixResolver() {
         return logPrefixResolver;
     }
 
+    /**
+     * Sets the resolver of log prefixes. Log prefixes are resolved lazily and cached by every descriptor, so a new
+     * resolver takes effect for the next {@link #getLogPrefix()} call of every descriptor.
+     *
+     * @param logPrefixResolver the resolver
+     */
     public static void setLogPrefixResolver(Function<DescriptorBase, String> logPrefixResolver) {
         Objects.requireNonNull(logPrefixResolver, "logPrefixResolver can't be null");
         AbstractDescriptor.logPrefixResolver = logPrefixResolver;
     }
 
+    public static ComponentIdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
+    /**
+     * Sets the generator of UUIDs for the components that are created without an explicit UUID. The default
+     * generator is {@link RandomComponentIdGenerator}.
+     *
+     * @param idGenerator the generator
+     */
+    public static void setIdGenerator(ComponentIdGenerator idGenerator) {
+        Objects.requireNonNull(idGenerator, "idGenerator can't be null");
+        AbstractDescriptor.idGenerator = idGenerator;
+    }
+
     private final ComponentName name;
 
+    private final int nameOrdinal;
+
     private final UUID uuid;
 
-    private final String fullName;
+    /*
+     * Identity strings are created on first access, because most of them are used only when debug logging is
+     * enabled. The fields are not volatile, as strings are immutable and computing them twice is harmless.
+     */
+
+    private @Nullable String shortUuid;
+
+    private @Nullable String fullName;
+
+    private @Nullable LogPrefix logPrefix;
 
-    private final String logPrefix;
+    /*
+     * State and group are stored in plain fields. JavaFX properties are created only when an observable view is
+     * requested, after that the fields are kept in sync with the properties.
+     */
 
-    private final String shortUuid;
+    private volatile ComponentState state = ComponentState.CREATING;
 
-    private final ReadOnlyObjectWrapper<ComponentState> state = new ReadOnlyObjectWrapper<>(ComponentState.CREATING);
+    private volatile @Nullable ComponentGroup group;
 
-    private final ReadOnlyObjectWrapper<ComponentGroup> group = new ReadOnlyObjectWrapper<>();
+    private @Nullable ReadOnlyObjectWrapper<ComponentState> stateWrapper;
+
+    private @Nullable ReadOnlyObjectWrapper<ComponentGroup> groupWrapper;
 
     protected AbstractDescriptor(ComponentName name) {
-        this(name, UUID.randomUUID());
+        this(name, idGenerator.generate());
     }
 
     protected AbstractDescriptor(ComponentName name, UUID uuid) {
         this.name = name;
+        this.nameOrdinal = ComponentNameRegistry.getOrdinal(name);
         this.uuid = uuid;
-        this.shortUuid = uuid.toString().substring(0, 8);
-        this.fullName = name.getText() + "@" + shortUuid;
-        this.logPrefix = logPrefixResolver.apply(this);
     }
 
     @Override
@@ -70,6 +114,11 @@ public abstract class AbstractDescriptor implements DescriptorBase {
         return name;
     }
 
+    @Override
+    public int getNameOrdinal() {
+        return nameOrdinal;
+    }
+
     @Override
     public UUID getUuid() {
         return uuid;
@@ -77,42 +126,130 @@ public abstract class AbstractDescriptor implements DescriptorBase {
 
     @Override
     public String getShortUuid() {
-        return this.shortUuid;
+        var result = this.shortUuid;
+        if (result == null) {
+            result = HexFormat.of().toHexDigits(shortUuidBits(uuid));
+            this.shortUuid = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the 32 bits of the UUID that are used as the short UUID. For time-ordered (version 7) UUIDs these are
+     * the lowest random bits, because the first 32 bits are a part of the timestamp. For other UUIDs these are the
+     * first 32 bits.
+     */
+    static int shortUuidBits(UUID uuid) {
+        if (uuid.version() == 7) {
+            return (int) uuid.getLeastSignificantBits();
+        }
+        return (int) (uuid.getMostSignificantBits() >>> 32);
     }
 
     @Override
     public String getFullName() {
-        return fullName;
+        var result = this.fullName;
+        if (result == null) {
+            result = name.getText() + "@" + getShortUuid();
+            this.fullName = result;
+        }
+        return result;
     }
 
     @Override
     public String getLogPrefix() {
-        return logPrefix;
+        var resolver = logPrefixResolver;
+        var result = this.logPrefix;
+        if (result == null || result.owner() != resolver) {
+            result = new LogPrefix(resolver.apply(this), resolver);
+            this.logPrefix = result;
+        }
+        return result.value();
     }
 
     @Override
     public ComponentState getState() {
-        return this.state.get();
+        return this.state;
     }
 
     @Override
     public @Nullable ComponentGroup getGroup() {
-       return group.get();
+       return this.group;
     }
 
     protected void setState(ComponentState state) {
-        this.state.set(state);
+        var wrapper = this.stateWrapper;
+        if (wrapper == null) {
+            applyState(state);
+        } else {
+            wrapper.set(state);
+        }
     }
 
     protected void setGroup(@Nullable ComponentGroup group) {
-        this.group.set(group);
+        var wrapper = this.groupWrapper;
+        if (wrapper == null) {
+            applyGroup(group);
+        } else {
+            wrapper.set(group);
+        }
     }
 
+    /**
+     * Returns the state wrapper, creating it on the first call.
+     */
     protected ReadOnlyObjectWrapper<ComponentState> getStateWrapper() {
-        return state;
+        var wrapper = this.stateWrapper;
+        if (wrapper == null) {
+            wrapper = new ReadOnlyObjectWrapper<>(this.state) {
+
+                @Override
+                protected void invalidated() {
+                    applyState(get());
+                }
+            };
+            this.stateWrapper = wrapper;
+        }
+        return wrapper;
     }
 
+    /**
+     * Returns the group wrapper, creating it on the first call.
+     */
     protected ReadOnlyObjectWrapper<ComponentGroup> getGroupWrapper() {
-       return group;
+        var wrapper = this.groupWrapper;
+        if (wrapper == null) {
+            wrapper = new ReadOnlyObjectWrapper<>(this.group) {
+
+                @Override
+                protected void invalidated() {
+                    applyGroup(get());
+                }
+            };
+            this.groupWrapper = wrapper;
+        }
+        return wrapper;
+    }
+
+    private void applyState(ComponentState state) {
+        var oldState = this.state;
+        this.state = state;
+        if (oldState != state) {
+            LifecycleEventBus.publish(this, oldState, state);
+        }
+        if (state == ComponentState.DEINITIALIZED) {
+            var g = this.group;
+            if (g != null) {
+                ComponentGroupIndex.update(this, g, null);
+            }
+        }
+    }
+
+    private void applyGroup(@Nullable ComponentGroup group) {
+        var oldGroup = this.group;
+        this.group = group;
+        if (oldGroup != group && this.state != ComponentState.DEINITIALIZED) {
+            ComponentGroupIndex.update(this, oldGroup, group);
+        }
     }
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Saves the histories of a component subtree into a {@link TreeHistoryBundle} and restores them from it. The
+ * components of the restored subtree are matched with the components of the bundle by their position: the root
+ * matches the root if their names are equal, a child matches the child of the matched parent that has the same name
+ * and the same ordinal among the siblings with this name. So the bundle can be restored into a new subtree with the
+ * same layout, although the UUIDs of the components are different.
+ *
+ * @param <S> the type of the nodes
+ * @author Pavel Castornii
+ */
+public abstract class AbstractTreeHistoryBundler<S> {
+
+    @SuppressWarnings("unchecked")
+    private static <T extends AbstractComponentHistory> void writeHistory(HistoryWriter writer,
+            AbstractComponentHistory history, HistoryCodec<T> codec) {
+        writer.writeHistory((T) history, codec);
+    }
+
+    /**
+     * Saves the histories of the subtree into one buffer. The histories are written as they are, the component must
+     * save its state into the history before.
+     *
+     * @param root the root of the subtree
+     * @param resolver the resolver of the codecs, the components without a codec are saved without history
+     * @return the bundle
+     */
+    public TreeHistoryBundle save(S root, HistoryCodecResolver resolver) {
+        var writer = new HistoryWriter(4096);
+        writer.writeInt(TreeHistoryBundle.MAGIC);
+        writer.writeByte(TreeHistoryBundle.FORMAT_VERSION);
+        int countPosition = writer.size();
+        writer.writeInt(0);
+        int count = write(root, -1, 0, writer, resolver);
+        writer.setInt(countPosition, count);
+        return new TreeHistoryBundle(writer.toByteBuffer());
+    }
+
+    /**
+     * Restores the histories of the bundle into the matching components of the subtree.
+     *
+     * @param root the root of the subtree
+     * @param bundle the bundle
+     * @param resolver the resolver of the codecs, the components without a codec are not restored
+     * @return the number of the restored components
+     */
+    public int restore(S root, TreeHistoryBundle bundle, HistoryCodecResolver resolver) {
+        if (bundle.size() == 0 || !Objects.equals(getDescriptor(root).getName().getText(), bundle.getNameText(0))) {
+            return 0;
+        }
+        return restore(root, 0, bundle, resolver);
+    }
+
+    protected abstract List<? extends S> getChildren(S parent);
+
+    protected abstract DescriptorBase getDescriptor(S node);
+
+    /**
+     * Returns the history of the component. This method is called once for every component of the saved subtree, so
+     * it can save the current state of the component into its history.
+     *
+     * @param node the node
+     * @return the history or {@code null} if the component has no history
+     */
+    protected abstract @Nullable AbstractComponentHistory getHistory(S node);
+
+    /**
+     * Sets the restored history to the component.
+     *
+     * @param node the node
+     * @param history the history
+     * @return {@code true} if the history was accepted by the component, otherwise {@code false}
+     */
+    protected abstract boolean restoreHistory(S node, AbstractComponentHistory history);
+
+    private int write(S node, int parent, int index, HistoryWriter writer, HistoryCodecResolver resolver) {
+        var name = getDescriptor(node).getName();
+        writer.writeVarInt(parent);
+        writer.writeString(name.getText());
+        var history = getHistory(node);
+        var codec = history == null ? null : resolver.resolve(name);
+        if (history != null && codec != null) {
+            writeHistory(writer, history, codec);
+        } else {
+            writer.writeBoolean(false);
+        }
+        int next = index + 1;
+        for (var child : getChildren(node)) {
+            next = write(child, index, next, writer, resolver);
+        }
+        return next;
+    }
+
+    private int restore(S node, int index, TreeHistoryBundle bundle, HistoryCodecResolver resolver) {
+        int count = 0;
+        if (bundle.hasHistory(index)) {
+            var codec = resolver.resolve(getDescriptor(node).getName());
+            if (codec != null) {
+                var history = bundle.decodeHistory(index, codec);
+                if (history != null && restoreHistory(node, history)) {
+                    count++;
+                }
+            }
+        }
+        var children = getChildren(node);
+        if (children.isEmpty() || bundle.getFirstChild(index) < 0) {
+            return count;
+        }
+        // the children of the bundle by the name text in their order
+        var bundleChildren = new HashMap<@Nullable String, List<Integer>>();
+        for (int child = bundle.getFirstChild(index); child >= 0; child = bundle.getNextSibling(child)) {
+            bundleChildren.computeIfAbsent(bundle.getNameText(child), k -> new ArrayList<>()).add(child);
+        }
+        var ordinals = new HashMap<@Nullable String, Integer>();
+        for (var child : children) {
+            var text = getDescriptor(child).getName().getText();
+            int ordinal = ordinals.merge(text, 1, Integer::sum) - 1;
+            var candidates = bundleChildren.get(text);
+            if (candidates != null && ordinal < candidates.size()) {
+                count += restore(child, candidates.get(ordinal), bundle, resolver);
+            }
+        }
+        return count;
+    }
+}
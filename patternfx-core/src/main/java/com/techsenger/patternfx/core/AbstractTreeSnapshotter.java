@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Captures {@link TreeSnapshot}s of a component tree. Every node of the tree has a version that must change whenever
+ * the children of the node or of its descendants change, or the state of the node or of its descendants changes.
+ * When the version of a node equals the version in the previous snapshot, the previous subtree is reused without
+ * visiting the descendants of the node.
+ *
+ * @author Pavel Castornii
+ */
+public abstract class AbstractTreeSnapshotter<S> {
+
+    /**
+     * Captures the snapshot of the tree.
+     *
+     * @param root the root of the tree
+     * @param previous the previous snapshot of the same tree or {@code null}
+     * @return the snapshot
+     */
+    public TreeSnapshot capture(S root, @Nullable TreeSnapshot previous) {
+        var descriptor = getDescriptor(root);
+        if (previous != null && !previous.getUuid().equals(descriptor.getUuid())) {
+            previous = null;
+        }
+        return capture(root, descriptor, previous);
+    }
+
+    protected abstract List<? extends S> getChildren(S parent);
+
+    protected abstract DescriptorBase getDescriptor(S node);
+
+    /**
+     * Returns the version of the subtree of the node or a negative number if the node is not versioned, in this case
+     * the subtree is always captured again.
+     *
+     * @param node the node
+     * @return the version
+     */
+    protected abstract long getVersion(S node);
+
+    private TreeSnapshot capture(S node, DescriptorBase descriptor, @Nullable TreeSnapshot previous) {
+        long version = getVersion(node);
+        if (previous != null && version >= 0 && previous.getVersion() == version) {
+            return previous;
+        }
+        var children = getChildren(node);
+        if (children.isEmpty()) {
+            return new TreeSnapshot(descriptor, version, List.of());
+        }
+        var previousChildren = previous == null ? null : indexByUuid(previous.getChildren());
+        var snapshots = new ArrayList<TreeSnapshot>(children.size());
+        for (int i = 0; i < children.size(); i++) {
+            var child = children.get(i);
+            var childDescriptor = getDescriptor(child);
+            var previousChild = previousChildren == null ? null : previousChildren.get(childDescriptor.getUuid());
+            snapshots.add(capture(child, childDescriptor, previousChild));
+        }
+        return new TreeSnapshot(descriptor, version, Collections.unmodifiableList(snapshots));
+    }
+
+    private static @Nullable HashMap<UUID, TreeSnapshot> indexByUuid(List<TreeSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return null;
+        }
+        var map = new HashMap<UUID, TreeSnapshot>(snapshots.size() * 2);
+        for (var snapshot : snapshots) {
+            map.put(snapshot.getUuid(), snapshot);
+        }
+        return map;
+    }
+}
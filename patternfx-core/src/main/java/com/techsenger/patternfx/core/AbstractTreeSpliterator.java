@@ -0,0 +1,170 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A pre-order depth-first {@link Spliterator} over a tree. The spliterator keeps a stack of pending subtrees and
+ * splits at subtree boundaries: the subtrees that come first in the encounter order are passed to the new
+ * spliterator. If only one subtree is pending, its root is passed to the new spliterator alone and its children stay
+ * in this one. So, the work on a tree can be distributed between threads without copying the tree.
+ *
+ * <p>The tree must not be modified while it is being traversed.
+ *
+ * @author Pavel Castornii
+ */
+public abstract class AbstractTreeSpliterator<T, S> implements Spliterator<T> {
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    /**
+     * Pending nodes, the top of the stack is the next node.
+     */
+    private Object[] nodes;
+
+    /**
+     * Whether the children of the pending node must be traversed.
+     */
+    private boolean[] expands;
+
+    private int size;
+
+    private long estimatedSize;
+
+    protected AbstractTreeSpliterator(S root) {
+        this(new Object[INITIAL_CAPACITY], new boolean[INITIAL_CAPACITY], 0, Long.MAX_VALUE);
+        push(root, true);
+    }
+
+    private AbstractTreeSpliterator(Object[] nodes, boolean[] expands, int size, long estimatedSize) {
+        this.nodes = nodes;
+        this.expands = expands;
+        this.size = size;
+        this.estimatedSize = estimatedSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (size == 0) {
+            return false;
+        }
+        size--;
+        @SuppressWarnings("unchecked")
+        S node = (S) nodes[size];
+        nodes[size] = null;
+        if (expands[size]) {
+            pushChildren(node);
+        }
+        action.accept(map(node));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        while (tryAdvance(action)) {
+            // next
+        }
+    }
+
+    @Override
+    public @Nullable Spliterator<T> trySplit() {
+        Prefix prefix;
+        if (size == 1) {
+            if (!expands[0]) {
+                return null;
+            }
+            @SuppressWarnings("unchecked")
+            S root = (S) nodes[0];
+            if (getChildren(root).isEmpty()) {
+                return null;
+            }
+            nodes[0] = null;
+            size = 0;
+            pushChildren(root);
+            prefix = new Prefix(new Object[] {root}, new boolean[] {false}, 1, estimatedSize >>> 1);
+        } else if (size > 1) {
+            // the top of the stack is traversed first, so it goes to the prefix
+            int count = size >>> 1;
+            int from = size - count;
+            var prefixNodes = Arrays.copyOfRange(nodes, from, from + Math.max(count, INITIAL_CAPACITY));
+            var prefixExpands = Arrays.copyOfRange(expands, from, from + Math.max(count, INITIAL_CAPACITY));
+            Arrays.fill(nodes, from, size, null);
+            size = from;
+            prefix = new Prefix(prefixNodes, prefixExpands, count, estimatedSize >>> 1);
+        } else {
+            return null;
+        }
+        estimatedSize >>>= 1;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    protected abstract List<? extends S> getChildren(S parent);
+
+    protected abstract T map(S value);
+
+    private void pushChildren(S node) {
+        var children = getChildren(node);
+        for (int i = children.size() - 1; i >= 0; i--) {
+            push(children.get(i), true);
+        }
+    }
+
+    private void push(S node, boolean expand) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size << 1);
+            expands = Arrays.copyOf(expands, size << 1);
+        }
+        nodes[size] = node;
+        expands[size] = expand;
+        size++;
+    }
+
+    /**
+     * The spliterator split off from this one.
+     */
+    private final class Prefix extends AbstractTreeSpliterator<T, S> {
+
+        Prefix(Object[] nodes, boolean[] expands, int size, long estimatedSize) {
+            super(nodes, expands, size, estimatedSize);
+        }
+
+        @Override
+        protected List<? extends S> getChildren(S parent) {
+            return AbstractTreeSpliterator.this.getChildren(parent);
+        }
+
+        @Override
+        protected T map(S value) {
+            return AbstractTreeSpliterator.this.map(value);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Renders a tree as an indented string. The renderer can have a cached appender, usually the built-in one, whose
+ * text of every node is stored in the {@link TreeStringCache} of the node, so when the tree is rendered again with
+ * this appender only the lines of the nodes whose caches were invalidated are appended again. Only the line of the
+ * node itself is cached, the tree string is assembled from the lines on every call. All other appenders are
+ * called for every node on every call, so they may append any data of the node.
+ *
+ * <p>The cached appender must append only the data that does not change or that changes together with the version of
+ * the cache.
+ *
+ * @author Pavel Castornii
+ */
+public abstract class AbstractTreeStringRenderer<T, S> {
+
+    private static final String INDENT = "    ";
+
+    private static final String SEPARATOR = System.lineSeparator();
+
+    private final @Nullable BiConsumer<T, StringBuilder> cachedAppender;
+
+    /**
+     * Creates a renderer without a cached appender.
+     */
+    protected AbstractTreeStringRenderer() {
+        this(null);
+    }
+
+    /**
+     * Creates a renderer whose lines rendered with the given appender are cached.
+     *
+     * @param cachedAppender the appender whose lines are cached or {@code null}
+     */
+    protected AbstractTreeStringRenderer(@Nullable BiConsumer<T, StringBuilder> cachedAppender) {
+        this.cachedAppender = cachedAppender;
+    }
+
+    /**
+     * Renders the tree with the given root. The root has zero depth.
+     *
+     * @param root the root of the tree
+     * @param appender the callback that appends the text of one node
+     * @return the tree string
+     */
+    public String render(S root, BiConsumer<T, StringBuilder> appender) {
+        var builder = new StringBuilder();
+        render(root, 0, appender, appender == cachedAppender, builder);
+        return builder.toString();
+    }
+
+    protected abstract List<? extends S> getChildren(S parent);
+
+    protected abstract T map(S value);
+
+    /**
+     * Returns the cache of the node or {@code null} if the node is not cached.
+     *
+     * @param node the node
+     * @return the cache or {@code null}
+     */
+    protected abstract @Nullable TreeStringCache getCache(S node);
+
+    private void render(S node, int depth, BiConsumer<T, StringBuilder> appender, boolean cached,
+            StringBuilder builder) {
+        builder.append(INDENT.repeat(depth));
+        var cache = cached ? getCache(node) : null;
+        if (cache == null) {
+            appender.accept(map(node), builder);
+        } else {
+            var line = cache.getLine();
+            if (line == null) {
+                int start = builder.length();
+                appender.accept(map(node), builder);
+                cache.setLine(builder.substring(start));
+            } else {
+                builder.append(line);
+            }
+        }
+        var children = getChildren(node);
+        for (int i = 0; i < children.size(); i++) {
+            builder.append(SEPARATOR);
+            render(children.get(i), depth + 1, appender, cached, builder);
+        }
+    }
+}
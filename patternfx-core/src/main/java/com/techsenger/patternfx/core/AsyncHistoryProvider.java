@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Provides a history instance for a component asynchronously. This method is called when the component is created,
+ * so the history is loaded while the component builds its nodes. The component waits for the future during the
+ * {@code preInitialize()} phase. If the future completes exceptionally, the error is logged and the component is
+ * initialized without history.
+ *
+ * @param <T> the type of the history provided
+ * @author Pavel Castornii
+ */
+@FunctionalInterface
+public interface AsyncHistoryProvider<T extends AbstractComponentHistory> {
+
+    CompletableFuture<T> provide();
+}
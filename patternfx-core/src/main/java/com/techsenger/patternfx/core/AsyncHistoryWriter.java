@@ -0,0 +1,344 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes histories to a {@link HistoryStore} on a background thread. The sinks created by this writer encode the
+ * history on the calling thread, so the queued bytes are an immutable snapshot that doesn't depend on the component
+ * anymore, and the store is accessed only by the writer thread.
+ *
+ * <p>The writer thread takes all the queued histories at once, keeps only the last history for every key, writes
+ * them to the store and flushes the store once per batch. {@link #flush()} waits until all the histories queued
+ * before the call are written and fails if any of them could not be written. If the writer thread fails with an
+ * unexpected error, the writer is closed and the histories that were not written are counted as failed. The writer
+ * registers a shutdown hook that writes the remaining histories when the JVM exits, the hook is removed by
+ * {@link #close()}.
+ *
+ * @author Pavel Castornii
+ */
+public final class AsyncHistoryWriter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncHistoryWriter.class);
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    private static final class Item {
+
+        private final HistoryKey key;
+
+        private final byte[] bytes;
+
+        Item(HistoryKey key, byte[] bytes) {
+            this.key = key;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * The histories a {@link #flush()} call waits for, from the first one not written when the call started to the
+     * last one queued before the call.
+     */
+    private static final class FlushRequest {
+
+        private final long from;
+
+        private final long target;
+
+        private int failedCount;
+
+        private @Nullable Throwable failure;
+
+        FlushRequest(long from, long target) {
+            this.from = from;
+            this.target = target;
+        }
+    }
+
+    private final HistoryStore store;
+
+    private final Object lock = new Object();
+
+    private final ArrayDeque<Item> queue = new ArrayDeque<>();
+
+    private final List<FlushRequest> flushRequests = new ArrayList<>();
+
+    private final Thread thread;
+
+    private final Thread shutdownHook;
+
+    /**
+     * The number of queued items.
+     */
+    private long queuedCount;
+
+    /**
+     * The number of written items.
+     */
+    private long writtenCount;
+
+    private long batchCount;
+
+    private long failureCount;
+
+    private boolean closed;
+
+    /**
+     * The error that stopped the writer thread.
+     */
+    private @Nullable Throwable error;
+
+    /**
+     * The last failure of the current batch, accessed only by the writer thread.
+     */
+    private @Nullable Exception batchFailure;
+
+    /**
+     * Creates a writer and starts its thread.
+     *
+     * @param store the store, the writer doesn't close it
+     */
+    public AsyncHistoryWriter(HistoryStore store) {
+        this.store = store;
+        this.thread = new Thread(this::run, "patternfx-history-writer-" + threadCounter.incrementAndGet());
+        this.thread.setDaemon(true);
+        this.shutdownHook = new Thread(this::closeQuietly, this.thread.getName() + "-shutdown");
+        this.thread.start();
+        Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+    }
+
+    /**
+     * Creates a sink that encodes the history with the codec and queues it for writing with the given key.
+     *
+     * @param <T> the type of the history
+     * @param key the key of the history
+     * @param codec the codec of the history
+     * @return the sink
+     */
+    public <T extends AbstractComponentHistory> HistorySink<T> sink(HistoryKey key, HistoryCodec<T> codec) {
+        return history -> write(key, codec.toBytes(history));
+    }
+
+    /**
+     * Queues the encoded history for writing.
+     *
+     * @param key the key of the history
+     * @param bytes the encoded history, the array must not be modified after this call
+     */
+    public void write(HistoryKey key, byte[] bytes) {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("History writer is closed", error);
+            }
+            queue.add(new Item(key, bytes));
+            queuedCount++;
+            if (queue.size() == 1) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until all the histories queued before this call are written to the store and the store is flushed.
+     *
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     * @throws IllegalStateException if any of the histories could not be written or the writer thread failed
+     */
+    public void flush() throws InterruptedException {
+        if (Thread.currentThread() == thread) {
+            throw new IllegalStateException("Flush can't be called by the writer thread");
+        }
+        synchronized (lock) {
+            var request = new FlushRequest(writtenCount, queuedCount);
+            flushRequests.add(request);
+            try {
+                while (writtenCount < request.target && error == null && thread.isAlive()) {
+                    lock.wait();
+                }
+            } finally {
+                flushRequests.remove(request);
+            }
+            if (writtenCount < request.target) {
+                throw new IllegalStateException("History writer stopped before writing all histories", error);
+            }
+            if (request.failedCount != 0) {
+                throw new IllegalStateException("Failed to write " + request.failedCount + " histories",
+                        request.failure);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of histories that are queued but not written yet.
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            if (error != null) {
+                return 0;
+            }
+            return (int) (queuedCount - writtenCount);
+        }
+    }
+
+    /**
+     * Returns the number of batches written to the store.
+     */
+    public long getBatchCount() {
+        synchronized (lock) {
+            return batchCount;
+        }
+    }
+
+    /**
+     * Returns the number of histories that could not be written because of an error, including the histories that
+     * were dropped when the writer thread failed.
+     */
+    public long getFailureCount() {
+        synchronized (lock) {
+            return failureCount;
+        }
+    }
+
+    /**
+     * Writes all the queued histories and stops the writer thread. The histories queued after this call are
+     * rejected.
+     */
+    @Override
+    public void close() {
+        closeQuietly();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException ex) {
+            // the JVM is shutting down
+        }
+    }
+
+    private void closeQuietly() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            writeBatches();
+        } catch (Throwable ex) {
+            synchronized (lock) {
+                error = ex;
+                closed = true;
+                failureCount += queuedCount - writtenCount;
+                queue.clear();
+                lock.notifyAll();
+            }
+            logger.error("History writer thread failed, the histories that were not written are dropped", ex);
+        }
+    }
+
+    private void writeBatches() {
+        var batch = new LinkedHashMap<HistoryKey, byte[]>();
+        while (true) {
+            long start;
+            int itemCount;
+            synchronized (lock) {
+                while (queue.isEmpty() && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException ex) {
+                        // the thread is stopped only by close()
+                    }
+                }
+                if (queue.isEmpty()) {
+                    lock.notifyAll();
+                    return;
+                }
+                start = writtenCount;
+                itemCount = queue.size();
+                Item item;
+                while ((item = queue.poll()) != null) {
+                    batch.put(item.key, item.bytes);
+                }
+            }
+            int failed = writeBatch(batch);
+            batch.clear();
+            synchronized (lock) {
+                long end = start + itemCount;
+                writtenCount = end;
+                batchCount++;
+                failureCount += failed;
+                if (failed != 0) {
+                    for (var request : flushRequests) {
+                        if (request.from < end && start < request.target) {
+                            request.failedCount += failed;
+                            request.failure = batchFailure;
+                        }
+                    }
+                }
+                lock.notifyAll();
+            }
+            batchFailure = null;
+        }
+    }
+
+    private int writeBatch(Map<HistoryKey, byte[]> batch) {
+        int failed = 0;
+        for (var entry : batch.entrySet()) {
+            try {
+                store.put(entry.getKey(), ByteBuffer.wrap(entry.getValue()));
+            } catch (Exception ex) {
+                failed++;
+                batchFailure = ex;
+                logger.error("Error writing history {}", entry.getKey(), ex);
+            }
+        }
+        try {
+            store.flush();
+        } catch (Exception ex) {
+            failed = batch.size();
+            batchFailure = ex;
+            logger.error("Error flushing history store {}", store, ex);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Wrote {} histories to {}", batch.size() - failed, store);
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * An immutable array-based snapshot of a component tree. The components are stored in the depth-first pre-order,
+ * every component is identified by its index (the root has index zero) and its data is kept in parallel primitive
+ * arrays: the index of the parent, the depth, the {@link ComponentNameRegistry name ordinal}, the state ordinal and
+ * the two halves of the UUID. So, a snapshot takes about 30 bytes per component.
+ *
+ * <p>The snapshot is captured in the JavaFX Application Thread in one pass, after that it can be safely used by any
+ * thread. Because of the pre-order, the subtree of a component occupies the indexes from the index of the component
+ * to {@link #getSubtreeEnd(int)}.
+ *
+ * @author Pavel Castornii
+ */
+public final class CompactTreeSnapshot {
+
+    private static final ComponentState[] states = ComponentState.values();
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Captures the snapshot of the whole tree. The tree is walked depth-first from the root, so the parent of every
+     * component is always known.
+     *
+     * @param <S> the type of the tree nodes
+     * @param root the root of the tree
+     * @param childrenResolver the function that returns the children of a node
+     * @param descriptorResolver the function that returns the descriptor of a node
+     * @return the snapshot
+     */
+    @SuppressWarnings("unchecked")
+    public static <S> CompactTreeSnapshot capture(S root,
+            Function<? super S, ? extends List<? extends S>> childrenResolver,
+            Function<? super S, ? extends DescriptorBase> descriptorResolver) {
+        var builder = new Builder();
+        // pending nodes with the indexes of their parents and their depths
+        Object[] nodes = new Object[16];
+        int[] parents = new int[16];
+        int[] depths = new int[16];
+        nodes[0] = root;
+        parents[0] = -1;
+        int top = 1;
+        while (top > 0) {
+            top--;
+            var node = (S) nodes[top];
+            nodes[top] = null;
+            int depth = depths[top];
+            int index = builder.add(descriptorResolver.apply(node), parents[top], depth);
+            var children = childrenResolver.apply(node);
+            int count = children.size();
+            if (top + count > nodes.length) {
+                int capacity = Math.max(top + count, nodes.length << 1);
+                nodes = Arrays.copyOf(nodes, capacity);
+                parents = Arrays.copyOf(parents, capacity);
+                depths = Arrays.copyOf(depths, capacity);
+            }
+            // children are pushed in the reverse order, so the first child is taken first
+            for (int i = count - 1; i >= 0; i--) {
+                nodes[top] = children.get(i);
+                parents[top] = index;
+                depths[top] = depth + 1;
+                top++;
+            }
+        }
+        return builder.build();
+    }
+
+    private static final class Builder {
+
+        private int size;
+
+        private int[] parents = new int[INITIAL_CAPACITY];
+
+        private int[] depths = new int[INITIAL_CAPACITY];
+
+        private int[] nameOrdinals = new int[INITIAL_CAPACITY];
+
+        private byte[] stateOrdinals = new byte[INITIAL_CAPACITY];
+
+        private long[] uuidMsbs = new long[INITIAL_CAPACITY];
+
+        private long[] uuidLsbs = new long[INITIAL_CAPACITY];
+
+        int add(DescriptorBase descriptor, int parent, int depth) {
+            if (size == parents.length) {
+                int capacity = size << 1;
+                parents = Arrays.copyOf(parents, capacity);
+                depths = Arrays.copyOf(depths, capacity);
+                nameOrdinals = Arrays.copyOf(nameOrdinals, capacity);
+                stateOrdinals = Arrays.copyOf(stateOrdinals, capacity);
+                uuidMsbs = Arrays.copyOf(uuidMsbs, capacity);
+                uuidLsbs = Arrays.copyOf(uuidLsbs, capacity);
+            }
+            var uuid = descriptor.getUuid();
+            parents[size] = parent;
+            depths[size] = depth;
+            nameOrdinals[size] = descriptor.getNameOrdinal();
+            stateOrdinals[size] = (byte) descriptor.getState().ordinal();
+            uuidMsbs[size] = uuid.getMostSignificantBits();
+            uuidLsbs[size] = uuid.getLeastSignificantBits();
+            return size++;
+        }
+
+        CompactTreeSnapshot build() {
+            return new CompactTreeSnapshot(size, Arrays.copyOf(parents, size), Arrays.copyOf(depths, size),
+                    Arrays.copyOf(nameOrdinals, size), Arrays.copyOf(stateOrdinals, size),
+                    Arrays.copyOf(uuidMsbs, size), Arrays.copyOf(uuidLsbs, size));
+        }
+    }
+
+    private final int size;
+
+    private final int[] parents;
+
+    private final int[] depths;
+
+    private final int[] nameOrdinals;
+
+    private final byte[] stateOrdinals;
+
+    private final long[] uuidMsbs;
+
+    private final long[] uuidLsbs;
+
+    private CompactTreeSnapshot(int size, int[] parents, int[] depths, int[] nameOrdinals, byte[] stateOrdinals,
+            long[] uuidMsbs, long[] uuidLsbs) {
+        this.size = size;
+        this.parents = parents;
+        this.depths = depths;
+        this.nameOrdinals = nameOrdinals;
+        this.stateOrdinals = stateOrdinals;
+        this.uuidMsbs = uuidMsbs;
+        this.uuidLsbs = uuidLsbs;
+    }
+
+    /**
+     * Returns the number of components.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the parent or -1 for the root.
+     */
+    public int getParent(int index) {
+        checkIndex(index);
+        return parents[index];
+    }
+
+    public int getDepth(int index) {
+        checkIndex(index);
+        return depths[index];
+    }
+
+    public int getNameOrdinal(int index) {
+        checkIndex(index);
+        return nameOrdinals[index];
+    }
+
+    public ComponentName getName(int index) {
+        return ComponentNameRegistry.getName(getNameOrdinal(index));
+    }
+
+    public ComponentState getState(int index) {
+        checkIndex(index);
+        return states[stateOrdinals[index]];
+    }
+
+    public long getUuidMostSignificantBits(int index) {
+        checkIndex(index);
+        return uuidMsbs[index];
+    }
+
+    public long getUuidLeastSignificantBits(int index) {
+        checkIndex(index);
+        return uuidLsbs[index];
+    }
+
+    public UUID getUuid(int index) {
+        checkIndex(index);
+        return new UUID(uuidMsbs[index], uuidLsbs[index]);
+    }
+
+    /**
+     * Returns the index that follows the last component of the subtree of the given component.
+     *
+     * @param index the index of the root of the subtree
+     * @return the exclusive end of the subtree
+     */
+    public int getSubtreeEnd(int index) {
+        checkIndex(index);
+        int depth = depths[index];
+        int end = index + 1;
+        while (end < size && depths[end] > depth) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the number of the direct children of the given component.
+     */
+    public int getChildCount(int index) {
+        int end = getSubtreeEnd(index);
+        int count = 0;
+        for (int i = index + 1; i < end; i++) {
+            if (parents[i] == index) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the index of the component with the given UUID.
+     *
+     * @param uuid the UUID
+     * @return the index or -1 if there is no such component
+     */
+    public int indexOf(UUID uuid) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        for (int i = 0; i < size; i++) {
+            if (uuidMsbs[i] == msb && uuidLsbs[i] == lsb) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of the components with the given name.
+     */
+    public int count(ComponentName name) {
+        int ordinal = ComponentNameRegistry.getOrdinal(name);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (nameOrdinals[i] == ordinal) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of the components in the given state.
+     */
+    public int count(ComponentState state) {
+        byte ordinal = (byte) state.ordinal();
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (stateOrdinals[i] == ordinal) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactTreeSnapshot[size=" + size + "]";
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
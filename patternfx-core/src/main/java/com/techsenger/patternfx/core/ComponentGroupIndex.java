@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * An application-wide index of the members of every {@link ComponentGroup}. The index is updated by
+ * {@link AbstractDescriptor} every time the group of a component changes (including the changes made via an
+ * observable group property), and a component leaves its group in the index when it is deinitialized.
+ *
+ * <p>All queries cost time proportional to the size of the group, not to the number of components in the
+ * application. The index keeps weak references to the descriptors, so a component that was never deinitialized
+ * leaves its group after it is garbage collected. This class is thread-safe.
+ *
+ * @author Pavel Castornii
+ */
+public final class ComponentGroupIndex {
+
+    private static final Map<ComponentGroup, WeakIdentitySet<DescriptorBase>> membersByGroup =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Returns a new list with the descriptors of the components that belong to the group.
+     *
+     * @param group the component group
+     * @return the list of descriptors, can be empty
+     */
+    public static List<DescriptorBase> getMembers(ComponentGroup group) {
+        var members = membersByGroup.get(group);
+        return members == null ? new ArrayList<>(0) : members.toList();
+    }
+
+    /**
+     * Performs the action for the descriptor of every component that belongs to the group.
+     *
+     * @param group the component group
+     * @param action the action
+     */
+    public static void forEachMember(ComponentGroup group, Consumer<? super DescriptorBase> action) {
+        var members = membersByGroup.get(group);
+        if (members != null) {
+            members.forEach(action);
+        }
+    }
+
+    /**
+     * Returns the number of the components that belong to the group.
+     *
+     * @param group the component group
+     * @return the number of components
+     */
+    public static int size(ComponentGroup group) {
+        var members = membersByGroup.get(group);
+        return members == null ? 0 : members.size();
+    }
+
+    /**
+     * Returns whether the component with the given descriptor belongs to the group.
+     *
+     * @param group the component group
+     * @param descriptor the descriptor of the component
+     * @return {@code true} if the component belongs to the group, otherwise {@code false}
+     */
+    public static boolean contains(ComponentGroup group, DescriptorBase descriptor) {
+        var members = membersByGroup.get(group);
+        return members != null && members.contains(descriptor);
+    }
+
+    /**
+     * Returns a new list with all groups that have at least one member.
+     *
+     * @return the list of groups
+     */
+    public static List<ComponentGroup> getGroups() {
+        var result = new ArrayList<ComponentGroup>(membersByGroup.size());
+        for (var group : membersByGroup.keySet()) {
+            var members = membersByGroup.computeIfPresent(group, (g, m) -> m.isEmpty() ? null : m);
+            if (members != null) {
+                result.add(group);
+            }
+        }
+        return result;
+    }
+
+    static void update(DescriptorBase descriptor, @Nullable ComponentGroup oldGroup,
+            @Nullable ComponentGroup newGroup) {
+        if (oldGroup != null) {
+            membersByGroup.computeIfPresent(oldGroup, (g, members) -> {
+                members.remove(descriptor);
+                return members.isEmpty() ? null : members;
+            });
+        }
+        if (newGroup != null) {
+            membersByGroup.compute(newGroup, (g, members) -> {
+                if (members == null) {
+                    members = new WeakIdentitySet<>();
+                }
+                members.add(descriptor);
+                return members;
+            });
+        }
+    }
+
+    private ComponentGroupIndex() {
+        // empty
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import java.util.UUID;
+
+/**
+ * Generates the {@link UUID} of every new component instance. The generator is used by
+ * {@link AbstractDescriptor} when no UUID is passed explicitly and can be replaced via
+ * {@link AbstractDescriptor#setIdGenerator(ComponentIdGenerator)}.
+ *
+ * <p>Implementations must be thread-safe and should not block, because components can be created in bursts (for
+ * example, when a workspace is restored).
+ *
+ * @author Pavel Castornii
+ */
+@FunctionalInterface
+public interface ComponentIdGenerator {
+
+    /**
+     * Returns a new unique identifier.
+     *
+     * @return the component UUID
+     */
+    UUID generate();
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An application-wide index of initialized components by their {@link ComponentName}. A component is added when it
+ * becomes {@link ComponentState#INITIALIZED} and is removed when its deinitialization starts. In MVP the indexed
+ * object is the presenter, in MVVM it is the view.
+ *
+ * <p>The index is stored in an array indexed by {@link DescriptorBase#getNameOrdinal() name ordinals}, so queries
+ * cost O(k), where k is the number of components with the given name, regardless of the size of the component tree.
+ * The index keeps weak references to the components, so a component that was never deinitialized leaves the index
+ * after it is garbage collected. This class is thread-safe.
+ *
+ * @author Pavel Castornii
+ */
+public final class ComponentNameIndex {
+
+    private static final class Bucket {
+
+        private final WeakIdentitySet<Object> components = new WeakIdentitySet<>();
+    }
+
+    private static final Object lock = new Object();
+
+    private static volatile Bucket[] buckets = new Bucket[0];
+
+    /**
+     * Adds the component to the index.
+     *
+     * @param descriptor the descriptor of the component
+     * @param component the component
+     */
+    public static void add(DescriptorBase descriptor, Object component) {
+        getOrCreateBucket(descriptor.getNameOrdinal()).components.add(component);
+    }
+
+    /**
+     * Removes the component from the index.
+     *
+     * @param descriptor the descriptor of the component
+     * @param component the component
+     */
+    public static void remove(DescriptorBase descriptor, Object component) {
+        var bucket = getBucket(descriptor.getNameOrdinal());
+        if (bucket != null) {
+            bucket.components.remove(component);
+        }
+    }
+
+    /**
+     * Returns a new list with all initialized components that have the given name.
+     *
+     * @param name the component name
+     * @return the list of components, can be empty
+     */
+    public static List<Object> getComponents(ComponentName name) {
+        var bucket = getBucket(ComponentNameRegistry.getOrdinal(name));
+        if (bucket == null) {
+            return new ArrayList<>(0);
+        }
+        return bucket.components.toList();
+    }
+
+    /**
+     * Returns a new list with all initialized components that have the given name and are instances of the given
+     * type.
+     *
+     * @param <T> the type of the components
+     * @param name the component name
+     * @param type the class of the components
+     * @return the list of components, can be empty
+     */
+    public static <T> List<T> getComponents(ComponentName name, Class<T> type) {
+        var bucket = getBucket(ComponentNameRegistry.getOrdinal(name));
+        var result = new ArrayList<T>();
+        if (bucket != null) {
+            bucket.components.forEach(c -> {
+                if (type.isInstance(c)) {
+                    result.add(type.cast(c));
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of initialized components with the given name.
+     *
+     * @param name the component name
+     * @return the number of components
+     */
+    public static int count(ComponentName name) {
+        var bucket = getBucket(ComponentNameRegistry.getOrdinal(name));
+        return bucket == null ? 0 : bucket.components.size();
+    }
+
+    /**
+     * Returns whether there is at least one initialized component with the given name.
+     *
+     * @param name the component name
+     * @return {@code true} if such component exists, otherwise {@code false}
+     */
+    public static boolean contains(ComponentName name) {
+        var bucket = getBucket(ComponentNameRegistry.getOrdinal(name));
+        return bucket != null && !bucket.components.isEmpty();
+    }
+
+    private static Bucket getOrCreateBucket(int ordinal) {
+        var bucket = getBucket(ordinal);
+        if (bucket != null) {
+            return bucket;
+        }
+        synchronized (lock) {
+            var current = buckets;
+            if (ordinal >= current.length) {
+                current = Arrays.copyOf(current, Math.max(ordinal + 1, ComponentNameRegistry.size()));
+            } else {
+                current = current.clone();
+            }
+            bucket = current[ordinal];
+            if (bucket == null) {
+                bucket = new Bucket();
+                current[ordinal] = bucket;
+            }
+            buckets = current;
+            return bucket;
+        }
+    }
+
+    private static @Nullable Bucket getBucket(int ordinal) {
+        var current = buckets;
+        return ordinal < current.length ? current[ordinal] : null;
+    }
+
+    private ComponentNameIndex() {
+        // empty
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns {@link ComponentName}s and assigns each of them a dense {@code int} ordinal. Names are identified by their
+ * text, the first registered instance with a given text becomes the canonical one. Ordinals start from 0 and are
+ * never reused, so per-name data can be stored in plain arrays indexed by ordinal, see {@link #size()}.
+ *
+ * <p>Descriptors resolve the ordinal of their name once on creation, see {@link DescriptorBase#getNameOrdinal()}.
+ * This class is thread-safe.
+ *
+ * @author Pavel Castornii
+ */
+public final class ComponentNameRegistry {
+
+    private static final Map<String, Integer> ordinalsByText = new ConcurrentHashMap<>();
+
+    private static final Object lock = new Object();
+
+    private static volatile ComponentName[] names = new ComponentName[0];
+
+    /**
+     * Returns the ordinal of the name, registering the name if it is not registered yet.
+     *
+     * @param name the component name
+     * @return the ordinal of the name
+     */
+    public static int getOrdinal(ComponentName name) {
+        var text = Objects.requireNonNull(name.getText(), "name text can't be null");
+        var ordinal = ordinalsByText.get(text);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        synchronized (lock) {
+            ordinal = ordinalsByText.get(text);
+            if (ordinal != null) {
+                return ordinal;
+            }
+            var current = names;
+            var updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = name;
+            names = updated;
+            ordinalsByText.put(text, current.length);
+            return current.length;
+        }
+    }
+
+    /**
+     * Returns the canonical instance of the name, registering the name if it is not registered yet.
+     *
+     * @param name the component name
+     * @return the registered name with the same text
+     */
+    public static ComponentName intern(ComponentName name) {
+        return getName(getOrdinal(name));
+    }
+
+    /**
+     * Returns the name with the given ordinal.
+     *
+     * @param ordinal the ordinal
+     * @return the component name
+     * @throws IndexOutOfBoundsException if there is no name with such ordinal
+     */
+    public static ComponentName getName(int ordinal) {
+        var current = names;
+        Objects.checkIndex(ordinal, current.length);
+        return current[ordinal];
+    }
+
+    /**
+     * Returns the number of registered names. All ordinals are less than this value.
+     *
+     * @return the number of names
+     */
+    public static int size() {
+        return names.length;
+    }
+
+    private ComponentNameRegistry() {
+        // empty
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An application-wide registry of live components that allows to find a component by its UUID in constant time.
+ * Components are registered when their initialization starts (state {@link ComponentState#CREATING}), so a
+ * component is never published before its construction is complete, and are removed when they are deinitialized.
+ * In MVP the registered object is the presenter, in MVVM it is the view.
+ *
+ * <p>The registry keeps weak references to the components, so a component that was never deinitialized is removed
+ * automatically after it is garbage collected. This class is thread-safe.
+ *
+ * @author Pavel Castornii
+ */
+public final class ComponentRegistry {
+
+    private static final class Entry extends WeakReference<Object> {
+
+        private final UUID uuid;
+
+        private final Integer shortKey;
+
+        Entry(UUID uuid, Object component, ReferenceQueue<Object> queue) {
+            super(component, queue);
+            this.uuid = uuid;
+            this.shortKey = toShortKey(uuid);
+        }
+    }
+
+    private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    private static final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The entries by their short UUIDs. Short UUIDs are not unique, so every key has an array of the entries, that
+     * usually contains one entry. The arrays are replaced, not modified.
+     */
+    private static final Map<Integer, Entry[]> entriesByShortUuid = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the component. If another component with the same UUID is registered, it is replaced.
+     *
+     * @param descriptor the descriptor of the component
+     * @param component the component
+     */
+    public static void register(DescriptorBase descriptor, Object component) {
+        expunge();
+        var entry = new Entry(descriptor.getUuid(), component, queue);
+        var previous = entries.put(entry.uuid, entry);
+        if (previous != null) {
+            removeShortKey(previous);
+        }
+        entriesByShortUuid.merge(entry.shortKey, new Entry[] {entry}, (current, added) -> {
+            var result = Arrays.copyOf(current, current.length + 1);
+            result[current.length] = entry;
+            return result;
+        });
+    }
+
+    /**
+     * Removes the component with the UUID of the descriptor from the registry.
+     *
+     * @param descriptor the descriptor of the component
+     */
+    public static void unregister(DescriptorBase descriptor) {
+        var entry = entries.remove(descriptor.getUuid());
+        if (entry != null) {
+            removeShortKey(entry);
+            entry.clear();
+        }
+        expunge();
+    }
+
+    /**
+     * Returns the live component with the given UUID.
+     *
+     * @param uuid the UUID of the component
+     * @return the component or {@code null} if there is no such component
+     */
+    public static @Nullable Object find(UUID uuid) {
+        var entry = entries.get(uuid);
+        return entry == null ? null : entry.get();
+    }
+
+    /**
+     * Returns the live component with the given UUID if it is an instance of the given type.
+     *
+     * @param <T> the type of the component
+     * @param uuid the UUID of the component
+     * @param type the class of the component
+     * @return the component or {@code null} if there is no such component of the given type
+     */
+    public static <T> @Nullable T find(UUID uuid, Class<T> type) {
+        var component = find(uuid);
+        return type.isInstance(component) ? type.cast(component) : null;
+    }
+
+    /**
+     * Returns the live component with the given short UUID, see {@link DescriptorBase#getShortUuid()}. Short UUIDs
+     * are not unique, if several live components have the same short UUID, the last registered one is returned.
+     *
+     * @param shortUuid 8 hexadecimal characters
+     * @return the component or {@code null} if there is no such component
+     * @throws NumberFormatException if the argument is not a hexadecimal number
+     */
+    public static @Nullable Object findByShortUuid(String shortUuid) {
+        var shortEntries = entriesByShortUuid.get(Integer.parseUnsignedInt(shortUuid, 16));
+        if (shortEntries == null) {
+            return null;
+        }
+        for (int i = shortEntries.length - 1; i >= 0; i--) {
+            var component = shortEntries[i].get();
+            if (component != null) {
+                return component;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of registered components. The value can include the components that were garbage collected
+     * but have not been expunged yet.
+     *
+     * @return the number of registered components
+     */
+    public static int size() {
+        expunge();
+        return entries.size();
+    }
+
+    private static Integer toShortKey(UUID uuid) {
+        return AbstractDescriptor.shortUuidBits(uuid);
+    }
+
+    private static void removeShortKey(Entry entry) {
+        entriesByShortUuid.computeIfPresent(entry.shortKey, (key, current) -> {
+            if (current.length == 1) {
+                return current[0] == entry ? null : current;
+            }
+            var result = new Entry[current.length - 1];
+            int count = 0;
+            for (var e : current) {
+                if (e != entry) {
+                    if (count == result.length) {
+                        // the entry is not in the array
+                        return current;
+                    }
+                    result[count++] = e;
+                }
+            }
+            return result;
+        });
+    }
+
+    private static void expunge() {
+        Entry entry;
+        while ((entry = (Entry) queue.poll()) != null) {
+            entries.remove(entry.uuid, entry);
+            removeShortKey(entry);
+        }
+    }
+
+    private ComponentRegistry() {
+        // empty
+    }
+}
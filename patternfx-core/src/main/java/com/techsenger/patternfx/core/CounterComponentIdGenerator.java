@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates UUIDs from a per-thread counter, so no shared state is touched after the first call in a thread.
+ *
+ * <p>Every thread gets a random 62-bit node identifier that is stored in the least significant bits. The most
+ * significant bits contain the counter of the thread: its lower 32 bits are scrambled by a bijective function and
+ * become the first 32 bits of the UUID, so consecutive components still have different
+ * {@link DescriptorBase#getShortUuid() short UUIDs}. The UUIDs are marked as version 8 (custom) UUIDs.
+ *
+ * @author Pavel Castornii
+ */
+public class CounterComponentIdGenerator implements ComponentIdGenerator {
+
+    private static final class ThreadState {
+
+        private final long node = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL)
+                | 0x8000000000000000L;
+
+        private long counter;
+    }
+
+    private static int mix(int value) {
+        // murmur3 finalizer, it is a bijection
+        int h = value;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private final ThreadLocal<ThreadState> state = ThreadLocal.withInitial(ThreadState::new);
+
+    @Override
+    public UUID generate() {
+        var threadState = state.get();
+        long counter = ++threadState.counter;
+        long msb = ((mix((int) counter) & 0xFFFFFFFFL) << 32)
+                | ((counter >>> 32 & 0xFFFFL) << 16)
+                | 0x8000L
+                | (counter >>> 48 & 0x0FFFL);
+        return new UUID(msb, threadState.node);
+    }
+}
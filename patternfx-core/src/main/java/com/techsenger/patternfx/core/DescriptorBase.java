@@ -35,6 +35,14 @@ public interface DescriptorBase {
      */
     ComponentName getName();
 
+    /**
+     * Returns the ordinal of the component name in {@link ComponentNameRegistry}. The ordinal is resolved once when
+     * the descriptor is created, so it can be used in hot paths instead of hashing the name.
+     *
+     * @return the name ordinal
+     */
+    int getNameOrdinal();
+
     /**
      * Returns the unique {@link UUID} of this component instance.
      *
@@ -43,13 +51,16 @@ public interface DescriptorBase {
     UUID getUuid();
 
     /**
-     * Returns the first 32 bits of the UUID.
+     * Returns 32 bits of the UUID as 8 hexadecimal characters. Usually these are the first 32 bits, for time-ordered
+     * (version 7) UUIDs these are the lowest random bits.
      */
     String getShortUuid();
 
     /**
      * Returns a human-readable identifier for this component instance. The identifier combines the component
-     * name with the first 32 bits of its UUID, represented as 8 hexadecimal characters.
+     * name with the {@link #getShortUuid() short UUID}, that is 32 bits of its UUID represented as 8 hexadecimal
+     * characters. Usually these are the first 32 bits, for time-ordered (version 7) UUIDs these are the lowest random
+     * 32 bits.
      *
      * <p>Example: {@code TextEditorTab#A0A0A0A0}</p>
      *
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Set;
+
+/**
+ * A {@link HistoryStore} that keeps encoded histories in memory within a byte budget and spills the least recently
+ * used histories to another store, usually a {@link MappedHistoryStore}. The histories that are put into the cache are
+ * written to the backing store only when they are evicted or the cache is flushed, the histories that are read from
+ * the backing store are kept in memory until they are evicted.
+ *
+ * <p>The size of an entry is the size of the history plus a fixed overhead of the entry. A history that is larger
+ * than the whole budget is written directly to the backing store. The backing store is not closed by this cache.
+ *
+ * @author Pavel Castornii
+ */
+public final class HistoryCache implements HistoryStore {
+
+    /**
+     * The approximate memory used by an entry besides the history: the key, the entry and the map node.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private static final class Entry {
+
+        private final byte[] bytes;
+
+        /**
+         * Whether the history is not in the backing store yet.
+         */
+        private boolean dirty;
+
+        Entry(byte[] bytes, boolean dirty) {
+            this.bytes = bytes;
+            this.dirty = dirty;
+        }
+
+        long size() {
+            return (long) bytes.length + ENTRY_OVERHEAD;
+        }
+    }
+
+    private final HistoryStore backingStore;
+
+    private final long maxSize;
+
+    /**
+     * Entries in the access order, the eldest entry is the least recently used one.
+     */
+    private final LinkedHashMap<HistoryKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    private long spillCount;
+
+    /**
+     * Creates a cache.
+     *
+     * @param backingStore the store that receives evicted histories and provides the histories that are not in memory
+     * @param maxSize the budget in bytes
+     */
+    public HistoryCache(HistoryStore backingStore, long maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be positive");
+        }
+        this.backingStore = backingStore;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public synchronized @Nullable ByteBuffer get(HistoryKey key) {
+        var entry = entries.get(key);
+        if (entry != null) {
+            hitCount++;
+            return ByteBuffer.wrap(entry.bytes).asReadOnlyBuffer();
+        }
+        missCount++;
+        var buffer = backingStore.get(key);
+        if (buffer == null) {
+            return null;
+        }
+        var bytes = new byte[buffer.remaining()];
+        buffer.get(buffer.position(), bytes);
+        add(key, new Entry(bytes, false));
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    @Override
+    public synchronized void put(HistoryKey key, ByteBuffer bytes) {
+        var copy = new byte[bytes.remaining()];
+        bytes.get(bytes.position(), copy);
+        add(key, new Entry(copy, true));
+    }
+
+    @Override
+    public synchronized boolean remove(HistoryKey key) {
+        var entry = entries.remove(key);
+        if (entry != null) {
+            size -= entry.size();
+        }
+        boolean removed = backingStore.remove(key);
+        return entry != null || removed;
+    }
+
+    @Override
+    public synchronized boolean contains(HistoryKey key) {
+        return entries.containsKey(key) || backingStore.contains(key);
+    }
+
+    @Override
+    public synchronized Set<HistoryKey> keys() {
+        var keys = new HashSet<>(backingStore.keys());
+        keys.addAll(entries.keySet());
+        return Set.copyOf(keys);
+    }
+
+    @Override
+    public synchronized int size() {
+        int count = backingStore.size();
+        for (var e : entries.entrySet()) {
+            if (e.getValue().dirty && !backingStore.contains(e.getKey())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the histories that are only in memory to the backing store and flushes it. The histories stay in
+     * memory.
+     */
+    @Override
+    public synchronized void flush() {
+        for (var e : entries.entrySet()) {
+            var entry = e.getValue();
+            if (entry.dirty) {
+                backingStore.put(e.getKey(), ByteBuffer.wrap(entry.bytes));
+                entry.dirty = false;
+                spillCount++;
+            }
+        }
+        backingStore.flush();
+    }
+
+    /**
+     * Flushes the cache and releases the memory. The backing store is not closed.
+     */
+    @Override
+    public synchronized void close() {
+        flush();
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns the budget in bytes.
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the memory used by the cached histories in bytes.
+     */
+    public synchronized long getCurrentSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of histories in memory.
+     */
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of histories that were removed from memory to stay within the budget.
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the number of histories written to the backing store.
+     */
+    public synchronized long getSpillCount() {
+        return spillCount;
+    }
+
+    /**
+     * Returns the ratio of hits to all reads.
+     *
+     * @return the ratio or zero if nothing was read
+     */
+    public synchronized double getHitRatio() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "HistoryCache[size=" + size + ", maxSize=" + maxSize + ", entries=" + entries.size() + ", hits="
+                + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + "]";
+    }
+
+    private void add(HistoryKey key, Entry entry) {
+        var previous = entries.remove(key);
+        if (previous != null) {
+            size -= previous.size();
+        }
+        if (entry.size() > maxSize) {
+            if (entry.dirty) {
+                backingStore.put(key, ByteBuffer.wrap(entry.bytes));
+                spillCount++;
+            }
+            return;
+        }
+        entries.put(key, entry);
+        size += entry.size();
+        var iterator = entries.entrySet().iterator();
+        while (size > maxSize) {
+            var eldest = iterator.next();
+            var evicted = eldest.getValue();
+            if (evicted.dirty) {
+                backingStore.put(eldest.getKey(), ByteBuffer.wrap(evicted.bytes));
+                spillCount++;
+            }
+            iterator.remove();
+            size -= evicted.size();
+            evictionCount++;
+        }
+    }
+}
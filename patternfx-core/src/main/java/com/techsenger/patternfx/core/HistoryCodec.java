@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes a component history into a compact binary form and decodes it back. Unlike Java serialization, the codec
+ * writes only the values of the fields, without class descriptors, and works with a reusable {@link ByteBuffer}.
+ *
+ * <p>Every codec has a version that is written before the history. When the set of the fields changes, the codec
+ * increments its version and {@link #decode(HistoryReader, int)} receives the version of the data, so the histories
+ * saved by the previous versions of the application can still be read.
+ *
+ * <p>The binary form of a history is the following:
+ * <pre>
+ * int     magic, {@link #MAGIC}
+ * byte    format version, {@link #FORMAT_VERSION}
+ * history see {@link HistoryWriter#writeHistory(AbstractComponentHistory, HistoryCodec)}
+ * </pre>
+ *
+ * @param <T> the type of the history
+ * @author Pavel Castornii
+ */
+public interface HistoryCodec<T extends AbstractComponentHistory> {
+
+    /**
+     * The first four bytes of every encoded history, "PFXH".
+     */
+    int MAGIC = 0x50465848;
+
+    /**
+     * The version of the binary format.
+     */
+    byte FORMAT_VERSION = 1;
+
+    /**
+     * Returns the version of the fields written by this codec.
+     *
+     * @return the version, not negative
+     */
+    int getVersion();
+
+    /**
+     * Writes the fields of the history.
+     *
+     * @param history the history
+     * @param writer the writer
+     */
+    void encode(T history, HistoryWriter writer);
+
+    /**
+     * Creates a history and reads its fields.
+     *
+     * @param reader the reader
+     * @param version the version of the codec that wrote the fields
+     * @return the history
+     */
+    T decode(HistoryReader reader, int version);
+
+    /**
+     * Encodes the history with the header.
+     *
+     * @param history the history
+     * @param writer the writer the history is appended to
+     */
+    default void write(T history, HistoryWriter writer) {
+        writer.writeInt(MAGIC);
+        writer.writeByte(FORMAT_VERSION);
+        writer.writeHistory(history, this);
+    }
+
+    /**
+     * Encodes the history with the header into a new array.
+     *
+     * @param history the history
+     * @return the encoded history
+     */
+    default byte[] toBytes(T history) {
+        var writer = new HistoryWriter();
+        write(history, writer);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decodes the history written by {@link #write(AbstractComponentHistory, HistoryWriter)}.
+     *
+     * @param reader the reader
+     * @return the history
+     * @throws IllegalArgumentException if the data is not an encoded history
+     */
+    default T read(HistoryReader reader) {
+        int magic = reader.readInt();
+        if (magic != MAGIC) {
+            throw new IllegalArgumentException("Not a history, magic is 0x" + Integer.toHexString(magic));
+        }
+        byte formatVersion = reader.readByte();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported history format version " + formatVersion);
+        }
+        var history = reader.readHistory(this);
+        if (history == null) {
+            throw new IllegalArgumentException("History is null");
+        }
+        return history;
+    }
+
+    /**
+     * Decodes the history from the remaining bytes of the buffer.
+     *
+     * @param buffer the buffer
+     * @return the history
+     * @throws IllegalArgumentException if the data is not an encoded history
+     */
+    default T fromBytes(ByteBuffer buffer) {
+        return read(new HistoryReader(buffer));
+    }
+
+    /**
+     * Decodes the history from the array.
+     *
+     * @param bytes the array
+     * @return the history
+     * @throws IllegalArgumentException if the data is not an encoded history
+     */
+    default T fromBytes(byte[] bytes) {
+        return fromBytes(ByteBuffer.wrap(bytes));
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+
+/**
+ * Returns the codec of the histories of the components with the given name. It is used when the histories of
+ * different component types are written together, for example, by {@link AbstractTreeHistoryBundler}.
+ *
+ * @author Pavel Castornii
+ */
+@FunctionalInterface
+public interface HistoryCodecResolver {
+
+    /**
+     * Returns the codec.
+     *
+     * @param name the component name
+     * @return the codec or {@code null} if the histories of these components are not persisted
+     */
+    @Nullable HistoryCodec<? extends AbstractComponentHistory> resolve(ComponentName name);
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The statistics of the compression of the histories of one {@link ComponentName}. This class is thread-safe.
+ *
+ * @author Pavel Castornii
+ */
+public final class HistoryCompressionStats {
+
+    private final LongAdder compressCount = new LongAdder();
+
+    private final LongAdder originalSize = new LongAdder();
+
+    private final LongAdder compressedSize = new LongAdder();
+
+    private final LongAdder compressNanos = new LongAdder();
+
+    private final LongAdder decompressCount = new LongAdder();
+
+    private final LongAdder decompressNanos = new LongAdder();
+
+    HistoryCompressionStats() {
+        // empty
+    }
+
+    public long getCompressCount() {
+        return compressCount.sum();
+    }
+
+    /**
+     * Returns the total size of the histories before compression in bytes.
+     */
+    public long getOriginalSize() {
+        return originalSize.sum();
+    }
+
+    /**
+     * Returns the total size of the histories after compression in bytes, including the header.
+     */
+    public long getCompressedSize() {
+        return compressedSize.sum();
+    }
+
+    /**
+     * Returns the ratio of the original size to the compressed size.
+     *
+     * @return the ratio or zero if nothing was compressed
+     */
+    public double getRatio() {
+        long compressed = compressedSize.sum();
+        return compressed == 0 ? 0 : (double) originalSize.sum() / compressed;
+    }
+
+    /**
+     * Returns the mean time of compression in nanoseconds.
+     */
+    public long getMeanCompressNanos() {
+        long count = compressCount.sum();
+        return count == 0 ? 0 : compressNanos.sum() / count;
+    }
+
+    public long getDecompressCount() {
+        return decompressCount.sum();
+    }
+
+    /**
+     * Returns the mean time of decompression in nanoseconds.
+     */
+    public long getMeanDecompressNanos() {
+        long count = decompressCount.sum();
+        return count == 0 ? 0 : decompressNanos.sum() / count;
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        compressCount.reset();
+        originalSize.reset();
+        compressedSize.reset();
+        compressNanos.reset();
+        decompressCount.reset();
+        decompressNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "HistoryCompressionStats[count=" + getCompressCount() + ", ratio=" + String.format("%.2f", getRatio())
+                + ", compressNanos=" + getMeanCompressNanos() + ", decompressNanos=" + getMeanDecompressNanos() + "]";
+    }
+
+    void recordCompress(int original, int compressed, long nanos) {
+        compressCount.increment();
+        originalSize.add(original);
+        compressedSize.add(compressed);
+        compressNanos.add(nanos);
+    }
+
+    void recordDecompress(long nanos) {
+        decompressCount.increment();
+        decompressNanos.add(nanos);
+    }
+}
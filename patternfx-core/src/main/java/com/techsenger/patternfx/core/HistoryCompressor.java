@@ -0,0 +1,465 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses encoded histories with {@link Deflater}. Compression is chosen per {@link ComponentName}: the histories
+ * of the names that were not {@link #enable(ComponentName, byte[]) enabled} are stored as is. The histories of one
+ * component type are usually small and similar, so every name can have a preset dictionary, that can be created by
+ * {@link #trainDictionary(Collection, int)} from the histories saved earlier.
+ *
+ * <p>The compressed history has the following form:
+ * <pre>
+ * byte  method, 0 - stored, 1 - deflated
+ * int   size of the original history
+ * bytes the stored or deflated history
+ * </pre>
+ * The deflated stream contains the checksum of its dictionary, so the histories compressed with a previous dictionary
+ * of the name can be decompressed while the compressor knows that dictionary. The histories larger than
+ * {@link #MAX_DEFLATED_SIZE} are always stored.
+ *
+ * <p>This class is thread-safe. Every thread that uses the compressor keeps its own deflater and inflater.
+ *
+ * @author Pavel Castornii
+ */
+public final class HistoryCompressor {
+
+    /**
+     * The maximum useful size of a dictionary, the size of the deflate window.
+     */
+    public static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    /**
+     * The maximum size of a history that is deflated. The size of the original history is read before inflating, so
+     * the limit prevents allocating a huge array for damaged data.
+     */
+    public static final int MAX_DEFLATED_SIZE = 64 * 1024 * 1024;
+
+    private static final byte STORED = 0;
+
+    private static final byte DEFLATED = 1;
+
+    private static final int HEADER_SIZE = 1 + Integer.BYTES;
+
+    /**
+     * Histories smaller than this size are not compressed.
+     */
+    private static final int MIN_COMPRESS_SIZE = 64;
+
+    /**
+     * The length of the substrings counted by the trainer.
+     */
+    private static final int GRAM_SIZE = 8;
+
+    /**
+     * The length of the segments the dictionary is built from.
+     */
+    private static final int SEGMENT_SIZE = 64;
+
+    /**
+     * Creates a dictionary from the samples of the histories of one component type. The dictionary consists of the
+     * sample segments that contain the most substrings shared by different samples. The most valuable segments are
+     * placed at the end of the dictionary, where deflate can reference them with the shortest distances.
+     *
+     * @param samples the encoded histories
+     * @param maxSize the maximum size of the dictionary, not greater than {@link #MAX_DICTIONARY_SIZE}
+     * @return the dictionary, empty if the samples have nothing in common
+     */
+    public static byte[] trainDictionary(Collection<byte[]> samples, int maxSize) {
+        if (maxSize <= 0 || maxSize > MAX_DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("Dictionary size must be between 1 and " + MAX_DICTIONARY_SIZE);
+        }
+        // the number of samples containing every substring, ISO-8859-1 maps every byte to one char
+        var frequencies = new HashMap<String, Integer>();
+        var sampleGrams = new HashSet<String>();
+        for (var sample : samples) {
+            sampleGrams.clear();
+            var text = new String(sample, StandardCharsets.ISO_8859_1);
+            for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+                sampleGrams.add(text.substring(i, i + GRAM_SIZE));
+            }
+            for (var gram : sampleGrams) {
+                frequencies.merge(gram, 1, Integer::sum);
+            }
+        }
+        var segments = new ArrayList<Segment>();
+        for (var sample : samples) {
+            for (int offset = 0; offset < sample.length; offset += SEGMENT_SIZE / 2) {
+                int length = Math.min(SEGMENT_SIZE, sample.length - offset);
+                if (length < GRAM_SIZE) {
+                    break;
+                }
+                var segment = new Segment(sample, offset, length);
+                segment.score = segment.score(frequencies);
+                if (segment.score > 0) {
+                    segments.add(segment);
+                }
+            }
+        }
+        segments.sort(Comparator.comparingInt((Segment s) -> s.score).reversed());
+        var selected = new ArrayList<Segment>();
+        int size = 0;
+        for (var segment : segments) {
+            if (size + segment.length > maxSize) {
+                continue;
+            }
+            // the substrings of the selected segments are already in the dictionary
+            int score = segment.score(frequencies);
+            if (score <= 0) {
+                continue;
+            }
+            segment.markUsed(frequencies);
+            selected.add(segment);
+            size += segment.length;
+            if (maxSize - size < GRAM_SIZE) {
+                break;
+            }
+        }
+        var dictionary = new byte[size];
+        int position = size;
+        for (var segment : selected) {
+            position -= segment.length;
+            System.arraycopy(segment.sample, segment.offset, dictionary, position, segment.length);
+        }
+        return dictionary;
+    }
+
+    private static byte[] store(byte[] history) {
+        var result = new byte[HEADER_SIZE + history.length];
+        result[0] = STORED;
+        ByteBuffer.wrap(result).putInt(1, history.length);
+        System.arraycopy(history, 0, result, HEADER_SIZE, history.length);
+        return result;
+    }
+
+    private static final class Segment {
+
+        private final byte[] sample;
+
+        private final int offset;
+
+        private final int length;
+
+        private int score;
+
+        Segment(byte[] sample, int offset, int length) {
+            this.sample = sample;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        /**
+         * Returns the sum of the frequencies of the substrings that occur in more than one sample.
+         */
+        int score(Map<String, Integer> frequencies) {
+            var text = new String(sample, offset, length, StandardCharsets.ISO_8859_1);
+            int result = 0;
+            for (int i = 0; i + GRAM_SIZE <= length; i++) {
+                int frequency = frequencies.getOrDefault(text.substring(i, i + GRAM_SIZE), 0);
+                if (frequency > 1) {
+                    result += frequency;
+                }
+            }
+            return result;
+        }
+
+        void markUsed(Map<String, Integer> frequencies) {
+            var text = new String(sample, offset, length, StandardCharsets.ISO_8859_1);
+            for (int i = 0; i + GRAM_SIZE <= length; i++) {
+                frequencies.put(text.substring(i, i + GRAM_SIZE), 0);
+            }
+        }
+    }
+
+    private static final class Settings {
+
+        private final byte @Nullable [] dictionary;
+
+        private final HistoryCompressionStats stats;
+
+        Settings(byte @Nullable [] dictionary, HistoryCompressionStats stats) {
+            this.dictionary = dictionary;
+            this.stats = stats;
+        }
+    }
+
+    private final class CompressedCodec<T extends AbstractComponentHistory> implements HistoryCodec<T> {
+
+        private final ComponentName name;
+
+        private final HistoryCodec<T> codec;
+
+        CompressedCodec(ComponentName name, HistoryCodec<T> codec) {
+            this.name = name;
+            this.codec = codec;
+        }
+
+        @Override
+        public int getVersion() {
+            return codec.getVersion();
+        }
+
+        @Override
+        public void encode(T history, HistoryWriter writer) {
+            codec.encode(history, writer);
+        }
+
+        @Override
+        public T decode(HistoryReader reader, int version) {
+            return codec.decode(reader, version);
+        }
+
+        @Override
+        public byte[] toBytes(T history) {
+            return compress(name, codec.toBytes(history));
+        }
+
+        @Override
+        public T fromBytes(ByteBuffer buffer) {
+            // the history was saved before compression was enabled
+            if (buffer.remaining() >= Integer.BYTES && buffer.getInt(buffer.position()) == HistoryCodec.MAGIC) {
+                return codec.fromBytes(buffer);
+            }
+            return codec.fromBytes(ByteBuffer.wrap(decompress(name, buffer)));
+        }
+    }
+
+    private final int level;
+
+    private final Map<ComponentName, Settings> settingsByName = new ConcurrentHashMap<>();
+
+    /**
+     * Dictionaries by their Adler-32 checksums.
+     */
+    private final Map<Integer, byte[]> dictionaries = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Deflater> deflaters;
+
+    private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+
+    public HistoryCompressor() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates a compressor with the given compression level.
+     *
+     * @param level the level from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public HistoryCompressor(int level) {
+        if ((level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)
+                && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level " + level);
+        }
+        this.level = level;
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level));
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Enables compression of the histories of the given component type without a dictionary.
+     *
+     * @param name the component name
+     */
+    public void enable(ComponentName name) {
+        enable(name, null);
+    }
+
+    /**
+     * Enables compression of the histories of the given component type. If compression is already enabled, the
+     * dictionary is replaced, the previous dictionary is kept to decompress the histories compressed with it.
+     *
+     * @param name the component name
+     * @param dictionary the preset dictionary or {@code null}
+     */
+    public void enable(ComponentName name, byte @Nullable [] dictionary) {
+        byte[] copy = null;
+        if (dictionary != null && dictionary.length > 0) {
+            if (dictionary.length > MAX_DICTIONARY_SIZE) {
+                copy = Arrays.copyOfRange(dictionary, dictionary.length - MAX_DICTIONARY_SIZE, dictionary.length);
+            } else {
+                copy = dictionary.clone();
+            }
+            var adler = new Adler32();
+            adler.update(copy);
+            dictionaries.put((int) adler.getValue(), copy);
+        }
+        var settings = settingsByName.get(name);
+        var stats = settings == null ? new HistoryCompressionStats() : settings.stats;
+        settingsByName.put(name, new Settings(copy, stats));
+    }
+
+    /**
+     * Disables compression of the histories of the given component type. The histories that were compressed earlier
+     * can still be decompressed.
+     *
+     * @param name the component name
+     */
+    public void disable(ComponentName name) {
+        settingsByName.remove(name);
+    }
+
+    public boolean isEnabled(ComponentName name) {
+        return settingsByName.containsKey(name);
+    }
+
+    /**
+     * Returns the statistics of the given component type.
+     *
+     * @param name the component name
+     * @return the statistics or {@code null} if compression is not enabled
+     */
+    public @Nullable HistoryCompressionStats getStats(ComponentName name) {
+        var settings = settingsByName.get(name);
+        return settings == null ? null : settings.stats;
+    }
+
+    /**
+     * Compresses the history. If compression of the component type is not enabled or doesn't reduce the size, the
+     * history is stored as is.
+     *
+     * @param name the component name
+     * @param history the encoded history
+     * @return the compressed history
+     */
+    public byte[] compress(ComponentName name, byte[] history) {
+        var settings = settingsByName.get(name);
+        if (settings == null || history.length < MIN_COMPRESS_SIZE || history.length > MAX_DEFLATED_SIZE) {
+            return store(history);
+        }
+        long startTime = System.nanoTime();
+        var deflater = deflaters.get();
+        deflater.reset();
+        if (settings.dictionary != null) {
+            deflater.setDictionary(settings.dictionary);
+        }
+        deflater.setInput(history);
+        deflater.finish();
+        // the compressed history must be smaller than the stored one
+        var result = new byte[history.length];
+        result[0] = DEFLATED;
+        ByteBuffer.wrap(result).putInt(1, history.length);
+        int size = HEADER_SIZE;
+        while (!deflater.finished() && size < result.length) {
+            size += deflater.deflate(result, size, result.length - size);
+        }
+        if (!deflater.finished()) {
+            result = store(history);
+        } else {
+            result = Arrays.copyOf(result, size);
+        }
+        settings.stats.recordCompress(history.length, result.length, System.nanoTime() - startTime);
+        return result;
+    }
+
+    /**
+     * Decompresses the history created by {@link #compress(ComponentName, byte[])}.
+     *
+     * @param name the component name
+     * @param buffer the remaining bytes of the buffer are the compressed history
+     * @return the encoded history
+     * @throws IllegalArgumentException if the data is damaged or was compressed with an unknown dictionary
+     */
+    public byte[] decompress(ComponentName name, ByteBuffer buffer) {
+        long startTime = System.nanoTime();
+        if (buffer.remaining() < HEADER_SIZE) {
+            throw new IllegalArgumentException("Compressed history is truncated");
+        }
+        byte method = buffer.get();
+        int size = buffer.getInt();
+        if (size < 0) {
+            throw new IllegalArgumentException("Invalid history size " + size);
+        }
+        if (method == STORED) {
+            if (size > buffer.remaining()) {
+                throw new IllegalArgumentException("Compressed history is truncated");
+            }
+            var history = new byte[size];
+            buffer.get(history);
+            return history;
+        } else if (method != DEFLATED) {
+            throw new IllegalArgumentException("Unknown compression method " + method);
+        }
+        if (size > MAX_DEFLATED_SIZE) {
+            throw new IllegalArgumentException("Invalid history size " + size);
+        }
+        var history = new byte[size];
+        var inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput(buffer);
+        try {
+            int position = 0;
+            while (!inflater.finished()) {
+                int count = inflater.inflate(history, position, size - position);
+                position += count;
+                if (count == 0) {
+                    if (inflater.needsDictionary()) {
+                        var dictionary = dictionaries.get(inflater.getAdler());
+                        if (dictionary == null) {
+                            throw new IllegalArgumentException("Unknown dictionary of " + name);
+                        }
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.needsInput() || position == size) {
+                        throw new IllegalArgumentException("Compressed history is truncated");
+                    }
+                }
+            }
+        } catch (DataFormatException ex) {
+            throw new IllegalArgumentException("Compressed history is damaged", ex);
+        }
+        var settings = settingsByName.get(name);
+        if (settings != null) {
+            settings.stats.recordDecompress(System.nanoTime() - startTime);
+        }
+        return history;
+    }
+
+    /**
+     * Returns a codec that compresses the histories encoded by the given codec. Only
+     * {@link HistoryCodec#toBytes(AbstractComponentHistory)} and {@link HistoryCodec#fromBytes(ByteBuffer)} are
+     * compressed, nested histories are written as is. The returned codec also reads the histories that were encoded
+     * by the given codec without compression.
+     *
+     * @param <T> the type of the history
+     * @param name the component name
+     * @param codec the codec
+     * @return the compressing codec
+     */
+    public <T extends AbstractComponentHistory> HistoryCodec<T> wrap(ComponentName name, HistoryCodec<T> codec) {
+        return new CompressedCodec<>(name, codec);
+    }
+}
@@ -0,0 +1,579 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A write-ahead journal of history updates in front of a checkpoint {@link HistoryStore}. Updates are appended to the
+ * journal file, which is cheap enough to persist the state of components continuously, and are applied to the
+ * checkpoint store by {@link #checkpoint()}, after which the journal is truncated.
+ *
+ * <p>{@link #put(HistoryKey, ByteBuffer)} and {@link #remove(HistoryKey)} only append the record to a memory buffer.
+ * {@link #sync()} (and {@link #flush()}) writes the buffer to the file and forces it to the storage device. The
+ * threads that call {@code sync()} while another thread is forcing the file wait and are committed together by the
+ * next force (group commit). When the journal grows beyond the checkpoint size, the thread that synced it makes a
+ * checkpoint.
+ *
+ * <p>The file has the following layout:
+ * <pre>
+ * int  magic, "PFXJ"
+ * int  format version
+ * records:
+ *   int    length of the record body
+ *   int    CRC-32C of the record body
+ *   body:
+ *     byte   type, 1 - put, 2 - remove
+ *     key    see {@link HistoryKey}
+ *     bytes  history with the length, only for put
+ * </pre>
+ * When a journal is opened, the records are read until the first incomplete or damaged record, the rest of the file,
+ * left by a crash, is discarded. The recovered updates are applied to the checkpoint store immediately. The
+ * checkpoint store is flushed before the journal is truncated, so a crash during a checkpoint leads only to the
+ * repeated application of the same updates.
+ *
+ * <p>The checkpoint store is not closed by this journal.
+ *
+ * @author Pavel Castornii
+ */
+public final class HistoryJournal implements HistoryStore {
+
+    /**
+     * The default size of the journal in bytes after which a checkpoint is made.
+     */
+    public static final long DEFAULT_CHECKPOINT_SIZE = 16 * 1024 * 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryJournal.class);
+
+    private static final int MAGIC = 0x5046584A;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 8;
+
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private static final byte PUT = 1;
+
+    private static final byte REMOVE = 2;
+
+    /**
+     * The value of the removed histories in the pending updates, compared by identity.
+     */
+    private static final byte[] REMOVED = new byte[0];
+
+    /**
+     * Opens the journal or creates it if the file doesn't exist, and applies the recovered updates to the checkpoint
+     * store.
+     *
+     * @param path the path of the journal file
+     * @param checkpointStore the store the updates are applied to
+     * @return the journal
+     * @throws IOException if an I/O error occurs or the file is not a history journal
+     */
+    public static HistoryJournal open(Path path, HistoryStore checkpointStore) throws IOException {
+        return open(path, checkpointStore, DEFAULT_CHECKPOINT_SIZE);
+    }
+
+    /**
+     * Opens the journal or creates it if the file doesn't exist, and applies the recovered updates to the checkpoint
+     * store.
+     *
+     * @param path the path of the journal file
+     * @param checkpointStore the store the updates are applied to
+     * @param checkpointSize the size of the journal in bytes after which a checkpoint is made
+     * @return the journal
+     * @throws IOException if an I/O error occurs or the file is not a history journal
+     */
+    public static HistoryJournal open(Path path, HistoryStore checkpointStore, long checkpointSize)
+            throws IOException {
+        if (checkpointSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Checkpoint size is too small");
+        }
+        var journal = new HistoryJournal(path, checkpointStore, checkpointSize);
+        try {
+            journal.recover();
+        } catch (IOException | RuntimeException ex) {
+            journal.channel.close();
+            throw ex;
+        }
+        return journal;
+    }
+
+    private static FileChannel openChannel(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private final Path path;
+
+    private final HistoryStore checkpointStore;
+
+    private final long checkpointSize;
+
+    private final Object lock = new Object();
+
+    /**
+     * The updates since the last checkpoint.
+     */
+    private final Map<HistoryKey, byte[]> pending = new HashMap<>();
+
+    private final CRC32C crc = new CRC32C();
+
+    private FileChannel channel;
+
+    /**
+     * The records that are not written to the file yet.
+     */
+    private HistoryWriter buffer = new HistoryWriter(4096);
+
+    private HistoryWriter spareBuffer = new HistoryWriter(4096);
+
+    private long journalSize;
+
+    private long appendedCount;
+
+    private long durableCount;
+
+    private boolean committing;
+
+    private long commitCount;
+
+    private long checkpointCount;
+
+    private int recoveredCount;
+
+    private boolean closed;
+
+    private HistoryJournal(Path path, HistoryStore checkpointStore, long checkpointSize) throws IOException {
+        this.path = path;
+        this.checkpointStore = checkpointStore;
+        this.checkpointSize = checkpointSize;
+        this.channel = openChannel(path);
+    }
+
+    @Override
+    public @Nullable ByteBuffer get(HistoryKey key) {
+        synchronized (lock) {
+            checkOpen();
+            var bytes = pending.get(key);
+            if (bytes == REMOVED) {
+                return null;
+            }
+            if (bytes != null) {
+                return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+            }
+        }
+        return checkpointStore.get(key);
+    }
+
+    @Override
+    public void put(HistoryKey key, ByteBuffer bytes) {
+        var copy = new byte[bytes.remaining()];
+        bytes.get(bytes.position(), copy);
+        synchronized (lock) {
+            checkOpen();
+            pending.put(key, copy);
+            append(PUT, key, copy);
+        }
+    }
+
+    @Override
+    public boolean remove(HistoryKey key) {
+        synchronized (lock) {
+            checkOpen();
+            boolean existed = contains(key);
+            pending.put(key, REMOVED);
+            append(REMOVE, key, REMOVED);
+            return existed;
+        }
+    }
+
+    @Override
+    public boolean contains(HistoryKey key) {
+        synchronized (lock) {
+            checkOpen();
+            var bytes = pending.get(key);
+            if (bytes != null) {
+                return bytes != REMOVED;
+            }
+        }
+        return checkpointStore.contains(key);
+    }
+
+    @Override
+    public Set<HistoryKey> keys() {
+        synchronized (lock) {
+            checkOpen();
+            var keys = new HashSet<>(checkpointStore.keys());
+            for (var e : pending.entrySet()) {
+                if (e.getValue() == REMOVED) {
+                    keys.remove(e.getKey());
+                } else {
+                    keys.add(e.getKey());
+                }
+            }
+            return Set.copyOf(keys);
+        }
+    }
+
+    @Override
+    public int size() {
+        return keys().size();
+    }
+
+    /**
+     * Makes all the updates appended before this call durable, see {@link #sync()}.
+     */
+    @Override
+    public void flush() {
+        sync();
+    }
+
+    /**
+     * Writes all the updates appended before this call to the file and forces the file to the storage device. If
+     * another thread is forcing the file, this method waits and commits the updates of all the waiting threads with
+     * one force.
+     */
+    public void sync() {
+        HistoryWriter records;
+        long count;
+        long position;
+        boolean interrupted = false;
+        synchronized (lock) {
+            checkOpen();
+            long target = appendedCount;
+            while (committing && durableCount < target) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (durableCount >= target) {
+                return;
+            }
+            committing = true;
+            records = buffer;
+            buffer = spareBuffer;
+            spareBuffer = records;
+            count = appendedCount;
+            position = journalSize;
+        }
+        boolean committed = false;
+        boolean checkpointNeeded = false;
+        try {
+            writeFully(channel, records.toByteBuffer(), position);
+            channel.force(false);
+            committed = true;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            synchronized (lock) {
+                committing = false;
+                if (committed) {
+                    journalSize += records.size();
+                    durableCount = count;
+                    commitCount++;
+                    checkpointNeeded = journalSize >= checkpointSize;
+                    records.clear();
+                } else {
+                    // the records are put back in front of the records appended since the swap, so they are written
+                    // again by the next sync, the waiting threads see that their records are not durable and retry
+                    records.writeRaw(buffer.toByteBuffer());
+                    buffer.clear();
+                    spareBuffer = buffer;
+                    buffer = records;
+                }
+                lock.notifyAll();
+            }
+        }
+        if (checkpointNeeded) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Applies the updates to the checkpoint store, flushes it and truncates the journal.
+     */
+    public void checkpoint() {
+        synchronized (lock) {
+            checkOpen();
+            awaitCommit();
+            if (pending.isEmpty() && journalSize == HEADER_SIZE) {
+                return;
+            }
+            for (var e : pending.entrySet()) {
+                if (e.getValue() == REMOVED) {
+                    checkpointStore.remove(e.getKey());
+                } else {
+                    checkpointStore.put(e.getKey(), ByteBuffer.wrap(e.getValue()));
+                }
+            }
+            checkpointStore.flush();
+            try {
+                channel.truncate(HEADER_SIZE);
+                channel.force(true);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            pending.clear();
+            buffer.clear();
+            journalSize = HEADER_SIZE;
+            durableCount = appendedCount;
+            checkpointCount++;
+            if (logger.isDebugEnabled()) {
+                logger.debug("Made checkpoint {} of {}", checkpointCount, path);
+            }
+        }
+    }
+
+    /**
+     * Rewrites the journal with only the last update of every history. The new file is written next to the current
+     * one and then replaces it. Unlike {@link #checkpoint()}, this method doesn't access the checkpoint store.
+     */
+    public void compact() {
+        synchronized (lock) {
+            checkOpen();
+            awaitCommit();
+            var tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+            try {
+                var records = new HistoryWriter(Math.max(buffer.size(), 4096));
+                writeHeader(records);
+                for (var e : pending.entrySet()) {
+                    var bytes = e.getValue();
+                    writeRecord(records, bytes == REMOVED ? REMOVE : PUT, e.getKey(), bytes);
+                }
+                try (var tempChannel = openChannel(tempPath)) {
+                    tempChannel.truncate(0);
+                    writeFully(tempChannel, records.toByteBuffer(), 0);
+                    tempChannel.force(true);
+                }
+                channel.close();
+                try {
+                    Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    // the compacted journal contains the records that were not synced yet
+                    buffer.clear();
+                    journalSize = records.size();
+                    durableCount = appendedCount;
+                } finally {
+                    channel = openChannel(path);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * Makes a checkpoint and closes the journal file.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            checkpoint();
+            closed = true;
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * Returns the size of the journal file in bytes.
+     */
+    public long getJournalSize() {
+        synchronized (lock) {
+            return journalSize;
+        }
+    }
+
+    /**
+     * Returns the number of forces of the journal file.
+     */
+    public long getCommitCount() {
+        synchronized (lock) {
+            return commitCount;
+        }
+    }
+
+    /**
+     * Returns the number of appended records.
+     */
+    public long getRecordCount() {
+        synchronized (lock) {
+            return appendedCount;
+        }
+    }
+
+    public long getCheckpointCount() {
+        synchronized (lock) {
+            return checkpointCount;
+        }
+    }
+
+    /**
+     * Returns the number of records recovered when the journal was opened.
+     */
+    public int getRecoveredCount() {
+        return recoveredCount;
+    }
+
+    @Override
+    public String toString() {
+        return "HistoryJournal[path=" + path + "]";
+    }
+
+    private void recover() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) {
+            buffer.clear();
+            writeHeader(buffer);
+            channel.truncate(0);
+            writeFully(channel, buffer.toByteBuffer(), 0);
+            channel.force(true);
+            buffer.clear();
+            journalSize = HEADER_SIZE;
+            return;
+        }
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("History journal is too large: " + path);
+        }
+        var data = ByteBuffer.allocate((int) fileSize);
+        while (data.hasRemaining() && channel.read(data, data.position()) >= 0) {
+            // read the whole file
+        }
+        data.flip();
+        if (data.getInt() != MAGIC) {
+            throw new IOException("Not a history journal: " + path);
+        }
+        int version = data.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported history journal version " + version + ": " + path);
+        }
+        while (data.remaining() >= RECORD_HEADER_SIZE) {
+            int start = data.position();
+            int length = data.getInt();
+            int checksum = data.getInt();
+            if (length <= 0 || length > data.remaining()) {
+                data.position(start);
+                break;
+            }
+            var body = data.slice(data.position(), length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                data.position(start);
+                break;
+            }
+            var reader = new HistoryReader(body);
+            byte type = reader.readByte();
+            var key = HistoryKey.read(reader);
+            if (type == PUT) {
+                pending.put(key, Objects.requireNonNull(reader.readBytes()));
+            } else {
+                pending.put(key, REMOVED);
+            }
+            recoveredCount++;
+            data.position(start + RECORD_HEADER_SIZE + length);
+        }
+        journalSize = data.position();
+        if (journalSize < fileSize) {
+            logger.warn("Discarding {} bytes of incomplete records of {}", fileSize - journalSize, path);
+            channel.truncate(journalSize);
+        }
+        if (recoveredCount > 0) {
+            logger.info("Recovered {} history records from {}", recoveredCount, path);
+            checkpoint();
+        }
+    }
+
+    private void append(byte type, HistoryKey key, byte[] bytes) {
+        writeRecord(buffer, type, key, bytes);
+        appendedCount++;
+    }
+
+    private void writeRecord(HistoryWriter writer, byte type, HistoryKey key, byte[] bytes) {
+        int start = writer.size();
+        writer.writeInt(0);
+        writer.writeInt(0);
+        writer.writeByte(type);
+        key.write(writer);
+        if (type == PUT) {
+            writer.writeBytes(bytes);
+        }
+        int length = writer.size() - start - RECORD_HEADER_SIZE;
+        crc.reset();
+        crc.update(writer.toByteBuffer().position(start + RECORD_HEADER_SIZE));
+        writer.setInt(start, length);
+        writer.setInt(start + Integer.BYTES, (int) crc.getValue());
+    }
+
+    private void writeHeader(HistoryWriter writer) {
+        writer.writeInt(MAGIC);
+        writer.writeInt(FORMAT_VERSION);
+    }
+
+    private void awaitCommit() {
+        boolean interrupted = false;
+        while (committing) {
+            try {
+                lock.wait();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("History journal is closed: " + path);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The key of a history in a {@link HistoryStore}. A history is identified either by the UUID of the component, when
+ * the same component instance is restored, or by the text of the {@link ComponentName} and an application-defined
+ * key, when a new component of the same type restores the history of the previous one (for example, the history of
+ * the "Settings" dialog).
+ *
+ * @author Pavel Castornii
+ */
+public final class HistoryKey {
+
+    static final byte UUID_TYPE = 1;
+
+    static final byte NAME_TYPE = 2;
+
+    /**
+     * Creates a key of the history of the component with the given UUID.
+     *
+     * @param uuid the UUID of the component
+     * @return the key
+     */
+    public static HistoryKey of(UUID uuid) {
+        Objects.requireNonNull(uuid, "uuid");
+        return new HistoryKey(uuid, null, null);
+    }
+
+    /**
+     * Creates a key of the history of the components with the given name.
+     *
+     * @param name the component name, must have a text
+     * @param key the application-defined key, may be empty
+     * @return the key
+     */
+    public static HistoryKey of(ComponentName name, String key) {
+        var text = name.getText();
+        if (text == null) {
+            throw new IllegalArgumentException("Component name has no text");
+        }
+        return new HistoryKey(null, text, Objects.requireNonNull(key, "key"));
+    }
+
+    static HistoryKey read(HistoryReader reader) {
+        byte type = reader.readByte();
+        if (type == UUID_TYPE) {
+            return new HistoryKey(new UUID(reader.readLong(), reader.readLong()), null, null);
+        } else if (type == NAME_TYPE) {
+            var nameText = Objects.requireNonNull(reader.readString());
+            var key = Objects.requireNonNull(reader.readString());
+            return new HistoryKey(null, nameText, key);
+        } else {
+            throw new IllegalArgumentException("Unknown history key type " + type);
+        }
+    }
+
+    private final @Nullable UUID uuid;
+
+    private final @Nullable String nameText;
+
+    private final @Nullable String key;
+
+    private HistoryKey(@Nullable UUID uuid, @Nullable String nameText, @Nullable String key) {
+        this.uuid = uuid;
+        this.nameText = nameText;
+        this.key = key;
+    }
+
+    /**
+     * Returns the UUID of the component.
+     *
+     * @return the UUID or {@code null} if the key is name-based
+     */
+    public @Nullable UUID getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Returns the text of the component name.
+     *
+     * @return the text or {@code null} if the key is UUID-based
+     */
+    public @Nullable String getNameText() {
+        return nameText;
+    }
+
+    /**
+     * Returns the application-defined key.
+     *
+     * @return the key or {@code null} if the key is UUID-based
+     */
+    public @Nullable String getKey() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof HistoryKey)) {
+            return false;
+        }
+        var other = (HistoryKey) obj;
+        return Objects.equals(uuid, other.uuid) && Objects.equals(nameText, other.nameText)
+                && Objects.equals(key, other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(uuid, nameText, key);
+    }
+
+    @Override
+    public String toString() {
+        if (uuid != null) {
+            return "HistoryKey[uuid=" + uuid + "]";
+        }
+        return "HistoryKey[name=" + nameText + ", key=" + key + "]";
+    }
+
+    void write(HistoryWriter writer) {
+        if (uuid != null) {
+            writer.writeByte(UUID_TYPE);
+            writer.writeLong(uuid.getMostSignificantBits());
+            writer.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            writer.writeByte(NAME_TYPE);
+            writer.writeString(nameText);
+            writer.writeString(key);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Reads the values written by {@link HistoryWriter} from a {@link ByteBuffer}. This class is not thread-safe.
+ *
+ * @author Pavel Castornii
+ */
+public final class HistoryReader {
+
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates a reader of the remaining bytes of the buffer. The position of the buffer is moved as the values are
+     * read.
+     *
+     * @param buffer the buffer
+     */
+    public HistoryReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public boolean readBoolean() {
+        return buffer.get() != 0;
+    }
+
+    public byte readByte() {
+        return buffer.get();
+    }
+
+    public short readShort() {
+        return buffer.getShort();
+    }
+
+    public char readChar() {
+        return buffer.getChar();
+    }
+
+    public int readInt() {
+        return buffer.getInt();
+    }
+
+    public long readLong() {
+        return buffer.getLong();
+    }
+
+    public float readFloat() {
+        return buffer.getFloat();
+    }
+
+    public double readDouble() {
+        return buffer.getDouble();
+    }
+
+    public int readVarInt() {
+        int value = readUnsignedVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public long readVarLong() {
+        long value = readUnsignedVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public @Nullable String readString() {
+        int length = readUnsignedVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        // the writer keeps unpaired surrogates as 3-byte sequences, which the standard UTF-8 decoder replaces with
+        // U+FFFD, so the string is decoded manually
+        var chars = new char[length];
+        int count = 0;
+        int end = buffer.position() + length;
+        while (buffer.position() < end) {
+            int b = buffer.get() & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if (b < 0xE0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (buffer.get() & 0x3F));
+            } else if (b < 0xF0) {
+                chars[count++] = (char) (((b & 0x0F) << 12) | ((buffer.get() & 0x3F) << 6) | (buffer.get() & 0x3F));
+            } else {
+                int codePoint = ((b & 0x07) << 18) | ((buffer.get() & 0x3F) << 12) | ((buffer.get() & 0x3F) << 6)
+                        | (buffer.get() & 0x3F);
+                chars[count++] = Character.highSurrogate(codePoint);
+                chars[count++] = Character.lowSurrogate(codePoint);
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    public byte @Nullable [] readBytes() {
+        int length = readUnsignedVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        var bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Reads the constant written by {@link HistoryWriter#writeEnum(Enum)}.
+     *
+     * @param <E> the type of the enum
+     * @param constants the constants of the enum
+     * @return the constant or {@code null}
+     * @throws IllegalArgumentException if the ordinal is out of range
+     */
+    public <E extends Enum<E>> @Nullable E readEnum(E[] constants) {
+        int ordinal = readUnsignedVarInt() - 1;
+        if (ordinal < 0) {
+            return null;
+        }
+        if (ordinal >= constants.length) {
+            throw new IllegalArgumentException("Unknown enum ordinal " + ordinal);
+        }
+        return constants[ordinal];
+    }
+
+    public @Nullable UUID readUuid() {
+        if (!readBoolean()) {
+            return null;
+        }
+        return new UUID(readLong(), readLong());
+    }
+
+    /**
+     * Reads a nested history written by {@link HistoryWriter#writeHistory(AbstractComponentHistory, HistoryCodec)}.
+     *
+     * @param <T> the type of the history
+     * @param codec the codec of the history
+     * @return the history or {@code null}
+     * @throws IllegalArgumentException if the codec read more bytes than were written
+     */
+    public <T extends AbstractComponentHistory> @Nullable T readHistory(HistoryCodec<T> codec) {
+        if (!readBoolean()) {
+            return null;
+        }
+        int version = readUnsignedVarInt();
+        boolean isNew = readBoolean();
+        int length = readInt();
+        int end = buffer.position() + length;
+        T history = codec.decode(this, version);
+        if (buffer.position() > end) {
+            throw new IllegalArgumentException("Codec read " + (buffer.position() - end) + " bytes more than written");
+        }
+        // the fields added by newer versions are skipped
+        buffer.position(end);
+        history.setNew(isNew);
+        // the fields set by the codec are persisted
+        history.clearDirty();
+        return history;
+    }
+
+    /**
+     * Skips a nested history without decoding it.
+     */
+    public void skipHistory() {
+        if (readBoolean()) {
+            readUnsignedVarInt();
+            readBoolean();
+            int length = readInt();
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    /**
+     * Returns the number of the remaining bytes.
+     */
+    public int remaining() {
+        return buffer.remaining();
+    }
+
+    int readUnsignedVarInt() {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 28) {
+                throw new IllegalArgumentException("Malformed variable-length int");
+            }
+            b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    long readUnsignedVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 63) {
+                throw new IllegalArgumentException("Malformed variable-length long");
+            }
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+/**
+ * Receives the history of a component after the component state was saved into it. This method is called during
+ * deinitialization on the thread of the component, so it must not perform blocking I/O. It should capture the history
+ * (for example, encode it with a {@link HistoryCodec}) and hand it over to a background writer such as
+ * {@link AsyncHistoryWriter}.
+ *
+ * @param <T> the type of {@link AbstractComponentHistory} received
+ * @author Pavel Castornii
+ */
+@FunctionalInterface
+public interface HistorySink<T extends AbstractComponentHistory> {
+
+    void accept(T history);
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * A storage of encoded component histories. The histories are stored as opaque byte sequences, usually produced by a
+ * {@link HistoryCodec}. Implementations must be thread-safe. I/O errors are reported as
+ * {@link java.io.UncheckedIOException}.
+ *
+ * @author Pavel Castornii
+ */
+public interface HistoryStore extends AutoCloseable {
+
+    /**
+     * Returns the encoded history.
+     *
+     * @param key the key of the history
+     * @return a read-only buffer with the history or {@code null} if there is no history with this key
+     */
+    @Nullable ByteBuffer get(HistoryKey key);
+
+    /**
+     * Stores the encoded history replacing the previous one with the same key.
+     *
+     * @param key the key of the history
+     * @param bytes the remaining bytes of the buffer, the position of the buffer is not changed
+     */
+    void put(HistoryKey key, ByteBuffer bytes);
+
+    /**
+     * Removes the history.
+     *
+     * @param key the key of the history
+     * @return {@code true} if the history existed, otherwise {@code false}
+     */
+    boolean remove(HistoryKey key);
+
+    boolean contains(HistoryKey key);
+
+    /**
+     * Returns a snapshot of the keys of all the stored histories.
+     *
+     * @return the keys
+     */
+    Set<HistoryKey> keys();
+
+    int size();
+
+    /**
+     * Writes all the changes to the storage device.
+     */
+    void flush();
+
+    @Override
+    void close();
+
+    /**
+     * Encodes the history and stores it.
+     *
+     * @param <T> the type of the history
+     * @param key the key of the history
+     * @param history the history
+     * @param codec the codec of the history
+     */
+    default <T extends AbstractComponentHistory> void save(HistoryKey key, T history, HistoryCodec<T> codec) {
+        put(key, ByteBuffer.wrap(codec.toBytes(history)));
+    }
+
+    /**
+     * Reads and decodes the history.
+     *
+     * @param <T> the type of the history
+     * @param key the key of the history
+     * @param codec the codec of the history
+     * @return the history or {@code null} if there is no history with this key
+     */
+    default <T extends AbstractComponentHistory> @Nullable T load(HistoryKey key, HistoryCodec<T> codec) {
+        var bytes = get(key);
+        return bytes == null ? null : codec.fromBytes(bytes);
+    }
+
+    /**
+     * Creates a provider that decodes the history from this store or, if there is no stored history, creates a new
+     * one.
+     *
+     * @param <T> the type of the history
+     * @param key the key of the history
+     * @param codec the codec of the history
+     * @param factory the factory of new histories
+     * @return the provider
+     */
+    default <T extends AbstractComponentHistory> HistoryProvider<T> provider(HistoryKey key, HistoryCodec<T> codec,
+            Supplier<? extends T> factory) {
+        return () -> {
+            var history = load(key, codec);
+            return history == null ? factory.get() : history;
+        };
+    }
+
+    /**
+     * Creates a provider that decodes the history from this store on the executor or, if there is no stored history,
+     * creates a new one.
+     *
+     * @param <T> the type of the history
+     * @param key the key of the history
+     * @param codec the codec of the history
+     * @param factory the factory of new histories
+     * @param executor the executor that reads and decodes the history
+     * @return the provider
+     */
+    default <T extends AbstractComponentHistory> AsyncHistoryProvider<T> asyncProvider(HistoryKey key,
+            HistoryCodec<T> codec, Supplier<? extends T> factory, Executor executor) {
+        var provider = provider(key, codec, factory);
+        return () -> CompletableFuture.supplyAsync(provider::provide, executor);
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Writes the fields of component histories into a growing heap {@link ByteBuffer}. Multi-byte values are written in
+ * the big-endian order. The writer can be reused after {@link #clear()}. This class is not thread-safe.
+ *
+ * @author Pavel Castornii
+ */
+public final class HistoryWriter {
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private ByteBuffer buffer;
+
+    public HistoryWriter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public HistoryWriter(int initialCapacity) {
+        this.buffer = ByteBuffer.allocate(Math.max(initialCapacity, 16));
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? (byte) 1 : (byte) 0);
+    }
+
+    public void writeByte(byte value) {
+        ensureCapacity(1);
+        buffer.put(value);
+    }
+
+    public void writeShort(short value) {
+        ensureCapacity(Short.BYTES);
+        buffer.putShort(value);
+    }
+
+    public void writeChar(char value) {
+        ensureCapacity(Character.BYTES);
+        buffer.putChar(value);
+    }
+
+    public void writeInt(int value) {
+        ensureCapacity(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    public void writeLong(long value) {
+        ensureCapacity(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    public void writeFloat(float value) {
+        ensureCapacity(Float.BYTES);
+        buffer.putFloat(value);
+    }
+
+    public void writeDouble(double value) {
+        ensureCapacity(Double.BYTES);
+        buffer.putDouble(value);
+    }
+
+    /**
+     * Writes an int in 1-5 bytes, small absolute values take less space.
+     *
+     * @param value the value
+     */
+    public void writeVarInt(int value) {
+        writeUnsignedVarInt((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Writes a long in 1-10 bytes, small absolute values take less space.
+     *
+     * @param value the value
+     */
+    public void writeVarLong(long value) {
+        writeUnsignedVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes a string in UTF-8 prefixed by its length in bytes.
+     *
+     * @param value the string or {@code null}
+     */
+    public void writeString(@Nullable String value) {
+        if (value == null) {
+            writeUnsignedVarInt(0);
+            return;
+        }
+        int length = value.length();
+        int byteCount = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                byteCount++;
+            } else if (c < 0x800) {
+                byteCount += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                byteCount += 4;
+                i++;
+            } else {
+                byteCount += 3;
+            }
+        }
+        writeUnsignedVarInt(byteCount + 1);
+        ensureCapacity(byteCount);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                // unpaired surrogates are written as is, like in modified UTF-8, and are decoded back by the reader
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Writes a byte array prefixed by its length.
+     *
+     * @param value the array or {@code null}
+     */
+    public void writeBytes(byte @Nullable [] value) {
+        if (value == null) {
+            writeUnsignedVarInt(0);
+            return;
+        }
+        writeUnsignedVarInt(value.length + 1);
+        ensureCapacity(value.length);
+        buffer.put(value);
+    }
+
+    /**
+     * Writes the ordinal of an enum constant.
+     *
+     * @param value the constant or {@code null}
+     */
+    public void writeEnum(@Nullable Enum<?> value) {
+        writeUnsignedVarInt(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    /**
+     * Writes a UUID.
+     *
+     * @param value the UUID or {@code null}
+     */
+    public void writeUuid(@Nullable UUID value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeLong(value.getMostSignificantBits());
+            writeLong(value.getLeastSignificantBits());
+        }
+    }
+
+    /**
+     * Writes a nested history. The history is written as the version of the codec, the {@code new} flag, the length
+     * of the fields and the fields, so the reader can skip the fields of an unknown history.
+     *
+     * @param <T> the type of the history
+     * @param history the history or {@code null}
+     * @param codec the codec of the history
+     */
+    public <T extends AbstractComponentHistory> void writeHistory(@Nullable T history,
+            HistoryCodec<? super T> codec) {
+        writeBoolean(history != null);
+        if (history == null) {
+            return;
+        }
+        writeUnsignedVarInt(codec.getVersion());
+        writeBoolean(history.isNew());
+        int lengthPosition = buffer.position();
+        writeInt(0);
+        int start = buffer.position();
+        codec.encode(history, this);
+        buffer.putInt(lengthPosition, buffer.position() - start);
+    }
+
+    /**
+     * Returns the number of written bytes.
+     */
+    public int size() {
+        return buffer.position();
+    }
+
+    /**
+     * Removes all written bytes keeping the allocated memory.
+     */
+    public void clear() {
+        buffer.clear();
+    }
+
+    /**
+     * Returns a copy of the written bytes.
+     *
+     * @return the new array
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Returns a read-only buffer with the written bytes that shares the memory of this writer. The buffer is valid
+     * until the next modification of the writer.
+     *
+     * @return the buffer
+     */
+    public ByteBuffer toByteBuffer() {
+        return buffer.asReadOnlyBuffer().flip();
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer as is.
+     */
+    void writeRaw(ByteBuffer bytes) {
+        ensureCapacity(bytes.remaining());
+        buffer.put(bytes);
+    }
+
+    /**
+     * Overwrites the int at the given position.
+     */
+    void setInt(int position, int value) {
+        buffer.putInt(position, value);
+    }
+
+    void writeUnsignedVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    void writeUnsignedVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void ensureCapacity(int count) {
+        if (buffer.remaining() < count) {
+            int capacity = Math.max(buffer.capacity() << 1, buffer.position() + count);
+            var newBuffer = ByteBuffer.allocate(capacity);
+            newBuffer.put(buffer.flip());
+            buffer = newBuffer;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * An application-wide stream of component lifecycle events. Every state transition of every
+ * {@link AbstractDescriptor} is published as a (descriptor, old state, new state, nano time) record into a
+ * preallocated ring buffer, so consumers subscribe once instead of adding a listener to every component.
+ *
+ * <p>Publishing never blocks and allocates nothing. When there are no subscribers, events are not written at all.
+ * Every {@link LifecycleSubscription} reads the buffer independently from its own position. If a subscriber falls
+ * behind by more than {@link #CAPACITY} events, the oldest events are skipped and counted as lost.
+ *
+ * <p>The buffer keeps references to the last {@link #CAPACITY} descriptors until they are overwritten.
+ *
+ * @author Pavel Castornii
+ */
+public final class LifecycleEventBus {
+
+    /**
+     * The number of events the ring buffer can hold.
+     */
+    public static final int CAPACITY = 4096;
+
+    /**
+     * The result of {@link #read(long, LifecycleEventHandler)} when the event was passed to the handler.
+     */
+    static final int READ = 0;
+
+    /**
+     * The result of {@link #read(long, LifecycleEventHandler)} when the event was overwritten by a newer one.
+     */
+    static final int LOST = 1;
+
+    /**
+     * The result of {@link #read(long, LifecycleEventHandler)} when the event is still being written.
+     */
+    static final int NOT_READY = 2;
+
+    private static final int MASK = CAPACITY - 1;
+
+    /**
+     * The sequence of the slot that is being written.
+     */
+    private static final long WRITING = -1;
+
+    private static final DescriptorBase[] descriptors = new DescriptorBase[CAPACITY];
+
+    private static final ComponentState[] oldStates = new ComponentState[CAPACITY];
+
+    private static final ComponentState[] newStates = new ComponentState[CAPACITY];
+
+    private static final long[] nanoTimes = new long[CAPACITY];
+
+    /**
+     * The sequence of the event stored in every slot.
+     */
+    private static final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+
+    /**
+     * The sequence of the next event.
+     */
+    static final AtomicLong cursor = new AtomicLong();
+
+    private static final AtomicInteger subscriberCount = new AtomicInteger();
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            sequences.set(i, WRITING);
+        }
+    }
+
+    /**
+     * Creates a new subscription that receives all the events published after this call.
+     *
+     * @return the subscription
+     */
+    public static LifecycleSubscription subscribe() {
+        subscriberCount.incrementAndGet();
+        return new LifecycleSubscription(cursor.get());
+    }
+
+    /**
+     * Returns whether there is at least one open subscription.
+     *
+     * @return {@code true} if events are published, otherwise {@code false}
+     */
+    public static boolean hasSubscribers() {
+        return subscriberCount.get() > 0;
+    }
+
+    static void publish(DescriptorBase descriptor, ComponentState oldState, ComponentState newState) {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+        long sequence = cursor.getAndIncrement();
+        int index = (int) sequence & MASK;
+        sequences.set(index, WRITING);
+        // the slot must be marked before its fields are overwritten
+        VarHandle.storeStoreFence();
+        descriptors[index] = descriptor;
+        oldStates[index] = oldState;
+        newStates[index] = newState;
+        nanoTimes[index] = System.nanoTime();
+        sequences.set(index, sequence);
+    }
+
+    /**
+     * Passes the event with the given sequence to the handler if it is still stored in the buffer.
+     *
+     * @return {@link #READ}, {@link #LOST} or {@link #NOT_READY}
+     */
+    static int read(long sequence, LifecycleEventHandler handler) {
+        int index = (int) sequence & MASK;
+        long stored = sequences.get(index);
+        if (stored < sequence) {
+            return NOT_READY;
+        }
+        if (stored > sequence) {
+            return LOST;
+        }
+        var descriptor = descriptors[index];
+        var oldState = oldStates[index];
+        var newState = newStates[index];
+        var nanoTime = nanoTimes[index];
+        VarHandle.loadLoadFence();
+        if (sequences.get(index) != sequence) {
+            return LOST;
+        }
+        handler.onEvent(descriptor, oldState, newState, nanoTime);
+        return READ;
+    }
+
+    static void unsubscribe() {
+        subscriberCount.decrementAndGet();
+    }
+
+    private LifecycleEventBus() {
+        // empty
+    }
+}
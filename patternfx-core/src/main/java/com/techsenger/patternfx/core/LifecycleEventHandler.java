@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+/**
+ * Receives the lifecycle events read by {@link LifecycleSubscription#poll(LifecycleEventHandler)}. The event is passed
+ * as separate arguments, so no event objects are created.
+ *
+ * @author Pavel Castornii
+ */
+@FunctionalInterface
+public interface LifecycleEventHandler {
+
+    /**
+     * Handles one state transition of a component.
+     *
+     * @param descriptor the descriptor of the component
+     * @param oldState the previous state
+     * @param newState the new state
+     * @param nanoTime the value of {@link System#nanoTime()} when the transition happened
+     */
+    void onEvent(DescriptorBase descriptor, ComponentState oldState, ComponentState newState, long nanoTime);
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+/**
+ * The phases of component initialization and deinitialization measured by {@link LifecycleTimings}.
+ *
+ * @author Pavel Castornii
+ */
+public enum LifecyclePhase {
+
+    /**
+     * The whole initialization, including all the initialization phases below.
+     */
+    INITIALIZE,
+
+    PRE_INITIALIZE,
+
+    BUILD,
+
+    BIND,
+
+    ADD_LISTENERS,
+
+    ADD_HANDLERS,
+
+    /**
+     * Restoring the component state from history or applying the defaults. In MVVM this phase covers the
+     * initialization of the view model.
+     */
+    RESTORE_HISTORY,
+
+    POST_INITIALIZE,
+
+    /**
+     * The whole deinitialization, including all the deinitialization phases below.
+     */
+    DEINITIALIZE,
+
+    PRE_DEINITIALIZE,
+
+    /**
+     * Saving the component state to history. In MVVM this phase covers the deinitialization of the view model.
+     */
+    SAVE_HISTORY,
+
+    REMOVE_HANDLERS,
+
+    REMOVE_LISTENERS,
+
+    UNBIND,
+
+    UNBUILD,
+
+    POST_DEINITIALIZE
+}
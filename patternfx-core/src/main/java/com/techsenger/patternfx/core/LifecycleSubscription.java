@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+/**
+ * A reader of {@link LifecycleEventBus}. The subscription doesn't receive events by itself, the owner calls
+ * {@link #poll(LifecycleEventHandler)} when it is ready to process them (for example, from a timer or a monitoring
+ * thread). A subscription must be used by one thread at a time and must be closed when it is no longer needed.
+ *
+ * @author Pavel Castornii
+ */
+public final class LifecycleSubscription implements AutoCloseable {
+
+    private long nextSequence;
+
+    private long lostCount;
+
+    private boolean closed;
+
+    LifecycleSubscription(long nextSequence) {
+        this.nextSequence = nextSequence;
+    }
+
+    /**
+     * Passes all the events that were published since the previous call to the handler.
+     *
+     * @param handler the handler of the events
+     * @return the number of the events passed to the handler
+     */
+    public int poll(LifecycleEventHandler handler) {
+        if (closed) {
+            throw new IllegalStateException("Subscription is closed");
+        }
+        int count = 0;
+        long published = LifecycleEventBus.cursor.get();
+        if (published - nextSequence > LifecycleEventBus.CAPACITY) {
+            lostCount += published - LifecycleEventBus.CAPACITY - nextSequence;
+            nextSequence = published - LifecycleEventBus.CAPACITY;
+        }
+        while (nextSequence < published) {
+            int result = LifecycleEventBus.read(nextSequence, handler);
+            if (result == LifecycleEventBus.NOT_READY) {
+                // the event is being written, it will be read by the next call
+                break;
+            }
+            if (result == LifecycleEventBus.READ) {
+                count++;
+            } else {
+                lostCount++;
+            }
+            nextSequence++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of events that were overwritten before this subscription read them.
+     *
+     * @return the number of lost events
+     */
+    public long getLostCount() {
+        return lostCount;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            LifecycleEventBus.unsubscribe();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.util.Arrays;
+
+/**
+ * Opt-in timing of the {@link LifecyclePhase lifecycle phases} of components. Durations are aggregated per
+ * {@link ComponentName} and phase into {@link LatencyHistogram}s, that are stored in arrays indexed by
+ * {@link DescriptorBase#getNameOrdinal() name ordinals}. Timing is disabled by default, when it is disabled the
+ * instrumentation costs one volatile read per phase.
+ *
+ * <p>The instrumented code uses the following pattern:
+ * <pre>{@code
+ * long time = LifecycleTimings.start();
+ * preInitialize();
+ * time = LifecycleTimings.record(descriptor, LifecyclePhase.PRE_INITIALIZE, time);
+ * build();
+ * time = LifecycleTimings.record(descriptor, LifecyclePhase.BUILD, time);
+ * }</pre>
+ *
+ * @author Pavel Castornii
+ */
+public final class LifecycleTimings {
+
+    private static final int PHASE_COUNT = LifecyclePhase.values().length;
+
+    private static final Object lock = new Object();
+
+    private static volatile boolean enabled;
+
+    /**
+     * Histograms by name ordinal and phase ordinal.
+     */
+    private static volatile LatencyHistogram[][] histograms = new LatencyHistogram[0][];
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        LifecycleTimings.enabled = enabled;
+    }
+
+    /**
+     * Returns the start time of a phase.
+     *
+     * @return the current {@link System#nanoTime()} or zero if timing is disabled
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the duration of the phase that started at the given time.
+     *
+     * @param descriptor the descriptor of the component
+     * @param phase the phase
+     * @param startTime the value returned by {@link #start()} or by the previous call of this method
+     * @return the end time of the phase that can be used as the start time of the next phase, or zero if timing
+     *      is disabled
+     */
+    public static long record(DescriptorBase descriptor, LifecyclePhase phase, long startTime) {
+        if (startTime == 0 || !enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        getOrCreateHistogram(descriptor.getNameOrdinal(), phase).record(now - startTime);
+        return now;
+    }
+
+    /**
+     * Returns the histogram of the phase durations of the components with the given name.
+     *
+     * @param name the component name
+     * @param phase the phase
+     * @return the histogram or {@code null} if nothing was recorded
+     */
+    public static @Nullable LatencyHistogram getHistogram(ComponentName name, LifecyclePhase phase) {
+        var current = histograms;
+        int ordinal = ComponentNameRegistry.getOrdinal(name);
+        if (ordinal >= current.length || current[ordinal] == null) {
+            return null;
+        }
+        return current[ordinal][phase.ordinal()];
+    }
+
+    /**
+     * Resets all histograms.
+     */
+    public static void reset() {
+        for (var phases : histograms) {
+            if (phases != null) {
+                for (var histogram : phases) {
+                    if (histogram != null) {
+                        histogram.reset();
+                    }
+                }
+            }
+        }
+    }
+
+    private static LatencyHistogram getOrCreateHistogram(int ordinal, LifecyclePhase phase) {
+        var current = histograms;
+        if (ordinal < current.length) {
+            var phases = current[ordinal];
+            if (phases != null) {
+                var histogram = phases[phase.ordinal()];
+                if (histogram != null) {
+                    return histogram;
+                }
+            }
+        }
+        synchronized (lock) {
+            current = histograms;
+            if (ordinal >= current.length) {
+                current = Arrays.copyOf(current, Math.max(ordinal + 1, ComponentNameRegistry.size()));
+            }
+            var phases = current[ordinal];
+            if (phases == null) {
+                phases = new LatencyHistogram[PHASE_COUNT];
+                current[ordinal] = phases;
+            }
+            var histogram = phases[phase.ordinal()];
+            if (histogram == null) {
+                histogram = new LatencyHistogram();
+                phases[phase.ordinal()] = histogram;
+            }
+            // volatile write publishes the changes
+            histograms = current;
+            return histogram;
+        }
+    }
+
+    private LifecycleTimings() {
+        // empty
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link HistoryStore} that keeps all the histories in one memory-mapped file. The histories are read directly from
+ * the mapping, without opening a file per component.
+ *
+ * <p>The file has the following layout:
+ * <pre>
+ * int  magic, "PFXS"
+ * int  format version
+ * long end of the records
+ * records:
+ *   int    length of the record after this field
+ *   byte   status, 1 - live, 0 - removed
+ *   key    see {@link HistoryKey}
+ *   int    length of the history
+ *   bytes  history
+ * </pre>
+ * Records are only appended, a replaced or removed record is marked as removed. The end of the records in the header
+ * is updated after a record is written. The store is forced to the storage device only by {@link #flush()}, so many
+ * updates can be made durable together. The replaced and removed records are marked only by {@code flush()}, after
+ * the new records are forced, so a crash can't lose both the old and the new record. The index of the records is
+ * rebuilt from the record headers when the store is opened, if there are several live records with the same key, the
+ * latest one is used. The records are read until the first damaged record, the rest of the file is discarded. The
+ * space of the removed records is reclaimed by {@link #compact()}. The size of the file is limited to 2 GB.
+ *
+ * <p>The buffers returned by {@link #get(HistoryKey)} share the memory of the mapping and must not be kept after the
+ * store is closed.
+ *
+ * @author Pavel Castornii
+ */
+public final class MappedHistoryStore implements HistoryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedHistoryStore.class);
+
+    private static final int MAGIC = 0x50465853;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 16;
+
+    private static final int END_OFFSET = 8;
+
+    private static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private static final byte LIVE = 1;
+
+    private static final byte REMOVED = 0;
+
+    /**
+     * Opens the store or creates it if the file doesn't exist.
+     *
+     * @param path the path of the file
+     * @return the store
+     * @throws IOException if an I/O error occurs or the file is not a history store
+     */
+    public static MappedHistoryStore open(Path path) throws IOException {
+        var store = new MappedHistoryStore(path);
+        try {
+            store.load();
+        } catch (IOException | RuntimeException ex) {
+            store.channel.close();
+            throw ex;
+        }
+        return store;
+    }
+
+    private static FileChannel openChannel(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static final class Entry {
+
+        private final int recordOffset;
+
+        private final int historyOffset;
+
+        private final int historyLength;
+
+        Entry(int recordOffset, int historyOffset, int historyLength) {
+            this.recordOffset = recordOffset;
+            this.historyOffset = historyOffset;
+            this.historyLength = historyLength;
+        }
+    }
+
+    private final Path path;
+
+    private final Map<HistoryKey, Entry> entries = new HashMap<>();
+
+    private final HistoryWriter recordWriter = new HistoryWriter();
+
+    /**
+     * The records that must be marked as removed by the next flush.
+     */
+    private final List<Entry> pendingRemovals = new ArrayList<>();
+
+    private FileChannel channel;
+
+    private MappedByteBuffer mapping;
+
+    private int end;
+
+    private long garbageSize;
+
+    private boolean closed;
+
+    private MappedHistoryStore(Path path) throws IOException {
+        this.path = path;
+        this.channel = openChannel(path);
+        this.mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), DEFAULT_CAPACITY));
+    }
+
+    @Override
+    public synchronized @Nullable ByteBuffer get(HistoryKey key) {
+        checkOpen();
+        var entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        return mapping.slice(entry.historyOffset, entry.historyLength).asReadOnlyBuffer();
+    }
+
+    @Override
+    public synchronized void put(HistoryKey key, ByteBuffer bytes) {
+        checkOpen();
+        recordWriter.clear();
+        recordWriter.writeInt(0);
+        recordWriter.writeByte(LIVE);
+        key.write(recordWriter);
+        recordWriter.writeInt(bytes.remaining());
+        int headerSize = recordWriter.size();
+        long recordSize = (long) headerSize + bytes.remaining();
+        if (end + recordSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("History store is full: " + path);
+        }
+        ensureCapacity(end + (int) recordSize);
+        int offset = end;
+        mapping.put(offset, recordWriter.toByteBuffer(), 0, headerSize);
+        mapping.putInt(offset, (int) recordSize - Integer.BYTES);
+        mapping.put(offset + headerSize, bytes, bytes.position(), bytes.remaining());
+        end = offset + (int) recordSize;
+        mapping.putLong(END_OFFSET, end);
+        var previous = entries.put(key, new Entry(offset, offset + headerSize, bytes.remaining()));
+        if (previous != null) {
+            markRemoved(previous);
+        }
+    }
+
+    @Override
+    public synchronized boolean remove(HistoryKey key) {
+        checkOpen();
+        var entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        markRemoved(entry);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean contains(HistoryKey key) {
+        checkOpen();
+        return entries.containsKey(key);
+    }
+
+    @Override
+    public synchronized Set<HistoryKey> keys() {
+        checkOpen();
+        return Set.copyOf(entries.keySet());
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of bytes occupied by the removed records.
+     */
+    public synchronized long getGarbageSize() {
+        return garbageSize;
+    }
+
+    /**
+     * Rewrites the file without the removed records. The new file is written next to the current one and then
+     * replaces it, so the store is not damaged and stays usable if the compaction fails. The store is flushed before
+     * the compaction.
+     */
+    public synchronized void compact() {
+        checkOpen();
+        if (garbageSize == 0) {
+            return;
+        }
+        var tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (var tempChannel = openChannel(tempPath)) {
+                tempChannel.truncate(0);
+                var header = ByteBuffer.allocate(HEADER_SIZE);
+                tempChannel.write(header, 0);
+                long position = HEADER_SIZE;
+                for (var entry : entries.values()) {
+                    int length = mapping.getInt(entry.recordOffset) + Integer.BYTES;
+                    var record = mapping.slice(entry.recordOffset, length);
+                    while (record.hasRemaining()) {
+                        position += tempChannel.write(record, position);
+                    }
+                }
+                header.clear().putInt(MAGIC).putInt(FORMAT_VERSION).putLong(position).flip();
+                tempChannel.write(header, 0);
+                tempChannel.force(true);
+            }
+            forceAndMarkRemoved();
+            channel.close();
+            try {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                // the old mapping is released and the index is rebuilt from the new file or from the old one if the
+                // file wasn't replaced
+                channel = openChannel(path);
+                mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), DEFAULT_CAPACITY));
+                entries.clear();
+                load();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        checkOpen();
+        forceAndMarkRemoved();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            forceAndMarkRemoved();
+            channel.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MappedHistoryStore[path=" + path + "]";
+    }
+
+    private void load() throws IOException {
+        garbageSize = 0;
+        pendingRemovals.clear();
+        if (mapping.getInt(0) == 0) {
+            // new file
+            mapping.putInt(0, MAGIC);
+            mapping.putInt(4, FORMAT_VERSION);
+            mapping.putLong(END_OFFSET, HEADER_SIZE);
+            end = HEADER_SIZE;
+            return;
+        }
+        if (mapping.getInt(0) != MAGIC) {
+            throw new IOException("Not a history store: " + path);
+        }
+        if (mapping.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported history store version " + mapping.getInt(4) + ": " + path);
+        }
+        long storedEnd = mapping.getLong(END_OFFSET);
+        int recordsEnd = (int) Math.max(HEADER_SIZE, Math.min(storedEnd, channel.size()));
+        int offset = HEADER_SIZE;
+        while (offset < recordsEnd && readRecord(offset, recordsEnd)) {
+            offset += mapping.getInt(offset) + Integer.BYTES;
+        }
+        end = offset;
+        if (end != storedEnd) {
+            logger.warn("Discarding {} bytes of damaged records of {}", storedEnd - end, path);
+            mapping.putLong(END_OFFSET, end);
+            mapping.force(0, HEADER_SIZE);
+        }
+    }
+
+    /**
+     * Reads the record and adds it to the index.
+     *
+     * @return {@code false} if the record is damaged
+     */
+    private boolean readRecord(int offset, int recordsEnd) {
+        if (recordsEnd - offset < Integer.BYTES) {
+            return false;
+        }
+        int length = mapping.getInt(offset);
+        if (length <= 0 || length > recordsEnd - offset - Integer.BYTES) {
+            return false;
+        }
+        HistoryKey key;
+        byte status;
+        int historyLength;
+        try {
+            var reader = new HistoryReader(mapping.slice(offset + Integer.BYTES, length));
+            status = reader.readByte();
+            key = HistoryKey.read(reader);
+            historyLength = reader.readInt();
+            if ((status != LIVE && status != REMOVED) || historyLength < 0 || historyLength != reader.remaining()) {
+                return false;
+            }
+        } catch (RuntimeException ex) {
+            return false;
+        }
+        int historyOffset = offset + Integer.BYTES + length - historyLength;
+        if (status == LIVE) {
+            // if a crash happened before the replaced record was marked as removed, the latest record wins
+            var previous = entries.put(key, new Entry(offset, historyOffset, historyLength));
+            if (previous != null) {
+                markRemoved(previous);
+            }
+        } else {
+            garbageSize += length + Integer.BYTES;
+        }
+        return true;
+    }
+
+    private void markRemoved(Entry entry) {
+        pendingRemovals.add(entry);
+        garbageSize += mapping.getInt(entry.recordOffset) + Integer.BYTES;
+    }
+
+    /**
+     * Forces the records to the storage device and then marks the replaced and removed records.
+     */
+    private void forceAndMarkRemoved() {
+        mapping.force();
+        if (pendingRemovals.isEmpty()) {
+            return;
+        }
+        for (var entry : pendingRemovals) {
+            mapping.put(entry.recordOffset + Integer.BYTES, REMOVED);
+        }
+        pendingRemovals.clear();
+        mapping.force();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= mapping.capacity()) {
+            return;
+        }
+        long newCapacity = Math.min(Math.max((long) mapping.capacity() << 1, capacity), Integer.MAX_VALUE);
+        try {
+            mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, newCapacity);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("History store is closed: " + path);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import java.util.UUID;
+
+/**
+ * The default generator that returns {@link UUID#randomUUID()}. The UUIDs are cryptographically strong, but every
+ * call goes through a shared {@link java.security.SecureRandom}, so this generator is the slowest one when many
+ * components are created concurrently.
+ *
+ * @author Pavel Castornii
+ */
+public class RandomComponentIdGenerator implements ComponentIdGenerator {
+
+    @Override
+    public UUID generate() {
+        return UUID.randomUUID();
+    }
+}
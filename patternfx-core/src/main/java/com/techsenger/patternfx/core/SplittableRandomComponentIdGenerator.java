@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Generates random version 4 UUIDs using a {@link SplittableRandom} per thread. The UUIDs are not
+ * cryptographically strong, but they are generated without any contention between threads.
+ *
+ * @author Pavel Castornii
+ */
+public class SplittableRandomComponentIdGenerator implements ComponentIdGenerator {
+
+    private final ThreadLocal<SplittableRandom> random = ThreadLocal.withInitial(SplittableRandom::new);
+
+    @Override
+    public UUID generate() {
+        var r = random.get();
+        long msb = (r.nextLong() & 0xFFFFFFFFFFFF0FFFL) | 0x4000L;
+        long lsb = (r.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered version 7 UUIDs (RFC 9562). The 48-bit Unix timestamp in milliseconds is followed by a
+ * 12-bit sequence that keeps UUIDs generated by this instance monotonic within the same millisecond, and the
+ * remaining 62 bits are random. The generator is lock-free.
+ *
+ * <p>Note, that the first 32 bits of such UUIDs are a part of the timestamp, so the
+ * {@link DescriptorBase#getShortUuid() short UUID} of a version 7 UUID is taken from its random bits.
+ *
+ * @author Pavel Castornii
+ */
+public class TimeOrderedComponentIdGenerator implements ComponentIdGenerator {
+
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    /**
+     * The last timestamp shifted by {@link #SEQUENCE_BITS} plus the sequence within that millisecond.
+     */
+    private final AtomicLong lastValue = new AtomicLong();
+
+    @Override
+    public UUID generate() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        long prev;
+        long next;
+        do {
+            prev = lastValue.get();
+            // if the sequence overflows, the value moves to the next millisecond
+            next = now > prev ? now : prev + 1;
+        } while (!lastValue.compareAndSet(prev, next));
+        long millis = next >>> SEQUENCE_BITS;
+        long msb = (millis << 16) | 0x7000L | (next & SEQUENCE_MASK);
+        long lsb = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
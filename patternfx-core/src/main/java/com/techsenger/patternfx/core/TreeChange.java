@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.util.UUID;
+
+/**
+ * One change between two {@link TreeSnapshot}s found by {@link TreeDiff}.
+ *
+ * @author Pavel Castornii
+ */
+public final class TreeChange {
+
+    /**
+     * The type of the change.
+     */
+    public enum Type {
+
+        /**
+         * The component is present only in the new snapshot.
+         */
+        ADDED,
+
+        /**
+         * The component is present only in the old snapshot.
+         */
+        REMOVED,
+
+        /**
+         * The component is present in both snapshots but has another parent.
+         */
+        MOVED,
+
+        /**
+         * The component is present in both snapshots but has another state.
+         */
+        STATE_CHANGED
+    }
+
+    private final Type type;
+
+    private final TreeSnapshot snapshot;
+
+    private final @Nullable UUID oldParent;
+
+    private final @Nullable UUID newParent;
+
+    private final @Nullable ComponentState oldState;
+
+    private final @Nullable ComponentState newState;
+
+    TreeChange(Type type, TreeSnapshot snapshot, @Nullable UUID oldParent, @Nullable UUID newParent,
+            @Nullable ComponentState oldState, @Nullable ComponentState newState) {
+        this.type = type;
+        this.snapshot = snapshot;
+        this.oldParent = oldParent;
+        this.newParent = newParent;
+        this.oldState = oldState;
+        this.newState = newState;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the snapshot of the changed component. For removed components it is the old snapshot, otherwise it is
+     * the new one.
+     *
+     * @return the snapshot of the component
+     */
+    public TreeSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public UUID getUuid() {
+        return snapshot.getUuid();
+    }
+
+    public ComponentName getName() {
+        return snapshot.getName();
+    }
+
+    /**
+     * Returns the UUID of the parent in the old snapshot or {@code null} if the component was the root or was added.
+     */
+    public @Nullable UUID getOldParent() {
+        return oldParent;
+    }
+
+    /**
+     * Returns the UUID of the parent in the new snapshot or {@code null} if the component is the root or was removed.
+     */
+    public @Nullable UUID getNewParent() {
+        return newParent;
+    }
+
+    /**
+     * Returns the state in the old snapshot or {@code null} if the component was added.
+     */
+    public @Nullable ComponentState getOldState() {
+        return oldState;
+    }
+
+    /**
+     * Returns the state in the new snapshot or {@code null} if the component was removed.
+     */
+    public @Nullable ComponentState getNewState() {
+        return newState;
+    }
+
+    @Override
+    public String toString() {
+        return "TreeChange[type=" + type + ", name=" + getName().getText() + ", uuid=" + getUuid()
+                + ", oldParent=" + oldParent + ", newParent=" + newParent + ", oldState=" + oldState
+                + ", newState=" + newState + "]";
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import com.techsenger.annotations.Unmodifiable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The structural difference between two {@link TreeSnapshot}s of the same tree. Components are matched by their
+ * UUIDs. The subtrees that are shared by both snapshots are skipped, so when the snapshots are captured by
+ * {@link AbstractTreeSnapshotter} the cost of the diff depends on the number of changes rather than on the size
+ * of the tree.
+ *
+ * <p>A component that was removed from one parent and added to another one is reported as
+ * {@link TreeChange.Type#MOVED}. The descendants of added and removed components are reported as well.
+ *
+ * @author Pavel Castornii
+ */
+public final class TreeDiff {
+
+    /**
+     * Computes the difference between two snapshots.
+     *
+     * @param oldSnapshot the old snapshot
+     * @param newSnapshot the new snapshot
+     * @return the difference
+     */
+    public static TreeDiff of(TreeSnapshot oldSnapshot, TreeSnapshot newSnapshot) {
+        var diff = new TreeDiff();
+        if (oldSnapshot.getUuid().equals(newSnapshot.getUuid())) {
+            diff.compare(oldSnapshot, newSnapshot, null);
+        } else {
+            diff.collect(diff.removed, oldSnapshot, null);
+            diff.collect(diff.added, newSnapshot, null);
+        }
+        diff.reconcile();
+        return diff;
+    }
+
+    private static final class Placement {
+
+        private final TreeSnapshot snapshot;
+
+        private final @Nullable UUID parent;
+
+        Placement(TreeSnapshot snapshot, @Nullable UUID parent) {
+            this.snapshot = snapshot;
+            this.parent = parent;
+        }
+    }
+
+    private final List<TreeChange> changes = new ArrayList<>();
+
+    private final Map<UUID, Placement> added = new LinkedHashMap<>();
+
+    private final Map<UUID, Placement> removed = new LinkedHashMap<>();
+
+    private TreeDiff() {
+        // empty
+    }
+
+    /**
+     * Returns all the changes.
+     *
+     * @return the unmodifiable list of changes
+     */
+    public @Unmodifiable List<TreeChange> getChanges() {
+        return Collections.unmodifiableList(changes);
+    }
+
+    /**
+     * Returns the changes of the given type.
+     *
+     * @param type the type of the changes
+     * @return the list of changes
+     */
+    public List<TreeChange> getChanges(TreeChange.Type type) {
+        var result = new ArrayList<TreeChange>();
+        for (var change : changes) {
+            if (change.getType() == type) {
+                result.add(change);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the snapshots are structurally equal and have the same states.
+     *
+     * @return {@code true} if there are no changes, otherwise {@code false}
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "TreeDiff[changes=" + changes + "]";
+    }
+
+    private void compare(TreeSnapshot oldNode, TreeSnapshot newNode, @Nullable UUID parent) {
+        if (oldNode == newNode) {
+            return;
+        }
+        if (oldNode.getState() != newNode.getState()) {
+            changes.add(new TreeChange(TreeChange.Type.STATE_CHANGED, newNode, parent, parent, oldNode.getState(),
+                    newNode.getState()));
+        }
+        var oldChildren = oldNode.getChildren();
+        var newChildren = newNode.getChildren();
+        var uuid = newNode.getUuid();
+        // the children usually stay at the same positions
+        int common = Math.min(oldChildren.size(), newChildren.size());
+        int i = 0;
+        while (i < common && oldChildren.get(i).getUuid().equals(newChildren.get(i).getUuid())) {
+            compare(oldChildren.get(i), newChildren.get(i), uuid);
+            i++;
+        }
+        if (i == oldChildren.size() && i == newChildren.size()) {
+            return;
+        }
+        var remaining = new HashMap<UUID, TreeSnapshot>((oldChildren.size() - i) * 2);
+        for (int j = i; j < oldChildren.size(); j++) {
+            remaining.put(oldChildren.get(j).getUuid(), oldChildren.get(j));
+        }
+        for (int j = i; j < newChildren.size(); j++) {
+            var newChild = newChildren.get(j);
+            var oldChild = remaining.remove(newChild.getUuid());
+            if (oldChild != null) {
+                compare(oldChild, newChild, uuid);
+            } else {
+                collect(added, newChild, uuid);
+            }
+        }
+        for (var oldChild : remaining.values()) {
+            collect(removed, oldChild, uuid);
+        }
+    }
+
+    private void collect(Map<UUID, Placement> placements, TreeSnapshot node, @Nullable UUID parent) {
+        placements.put(node.getUuid(), new Placement(node, parent));
+        for (var child : node.getChildren()) {
+            collect(placements, child, node.getUuid());
+        }
+    }
+
+    /**
+     * Converts the pairs of removed and added components into moves.
+     */
+    private void reconcile() {
+        for (var entry : removed.entrySet()) {
+            var oldPlacement = entry.getValue();
+            var oldNode = oldPlacement.snapshot;
+            var newPlacement = added.remove(entry.getKey());
+            if (newPlacement == null) {
+                changes.add(new TreeChange(TreeChange.Type.REMOVED, oldNode, oldPlacement.parent, null,
+                        oldNode.getState(), null));
+                continue;
+            }
+            var newNode = newPlacement.snapshot;
+            if (!Objects.equals(oldPlacement.parent, newPlacement.parent)) {
+                changes.add(new TreeChange(TreeChange.Type.MOVED, newNode, oldPlacement.parent, newPlacement.parent,
+                        oldNode.getState(), newNode.getState()));
+            }
+            if (oldNode.getState() != newNode.getState()) {
+                changes.add(new TreeChange(TreeChange.Type.STATE_CHANGED, newNode, oldPlacement.parent,
+                        newPlacement.parent, oldNode.getState(), newNode.getState()));
+            }
+        }
+        for (var newPlacement : added.values()) {
+            var newNode = newPlacement.snapshot;
+            changes.add(new TreeChange(TreeChange.Type.ADDED, newNode, null, newPlacement.parent, null,
+                    newNode.getState()));
+        }
+        added.clear();
+        removed.clear();
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The histories of a component subtree and the structure of the subtree in one contiguous buffer. The bundle is
+ * created by {@link AbstractTreeHistoryBundler#save(Object, HistoryCodecResolver)}, is written and read with one I/O
+ * operation and is restored by {@link AbstractTreeHistoryBundler#restore(Object, TreeHistoryBundle,
+ * HistoryCodecResolver)}.
+ *
+ * <p>The bundle has the following form:
+ * <pre>
+ * int     magic, "PFXT"
+ * byte    format version
+ * int     number of components
+ * components in depth-first order:
+ *   varint  index of the parent, -1 for the root
+ *   string  text of the component name
+ *   history see {@link HistoryWriter#writeHistory(AbstractComponentHistory, HistoryCodec)}
+ * </pre>
+ * The histories are decoded only when they are restored. This class is immutable.
+ *
+ * @author Pavel Castornii
+ */
+public final class TreeHistoryBundle {
+
+    static final int MAGIC = 0x50465854;
+
+    static final byte FORMAT_VERSION = 1;
+
+    /**
+     * Reads the bundle from the file.
+     *
+     * @param path the path of the file
+     * @return the bundle
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if the file is not a bundle
+     */
+    public static TreeHistoryBundle read(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("History bundle is too large: " + path);
+            }
+            var data = ByteBuffer.allocate((int) size);
+            while (data.hasRemaining() && channel.read(data) >= 0) {
+                // read the whole file
+            }
+            return new TreeHistoryBundle(data.flip());
+        }
+    }
+
+    /**
+     * Creates the bundle from the remaining bytes of the array.
+     *
+     * @param bytes the bundle
+     * @return the bundle
+     * @throws IllegalArgumentException if the data is not a bundle
+     */
+    public static TreeHistoryBundle fromBytes(byte[] bytes) {
+        return new TreeHistoryBundle(ByteBuffer.wrap(bytes.clone()));
+    }
+
+    private final ByteBuffer data;
+
+    private final int[] parents;
+
+    private final @Nullable String[] nameTexts;
+
+    /**
+     * The positions of the history records in the data or -1 if the component has no history.
+     */
+    private final int[] historyPositions;
+
+    private final int[] firstChildren;
+
+    private final int[] nextSiblings;
+
+    TreeHistoryBundle(ByteBuffer data) {
+        this.data = data.slice().asReadOnlyBuffer();
+        var reader = new HistoryReader(this.data.duplicate());
+        try {
+            if (reader.readInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a history bundle");
+            }
+            byte version = reader.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported history bundle version " + version);
+            }
+            int count = reader.readInt();
+            // every component takes at least three bytes
+            if (count < 0 || count > reader.remaining() / 3) {
+                throw new IllegalArgumentException("History bundle is damaged");
+            }
+            this.parents = new int[count];
+            this.nameTexts = new String[count];
+            this.historyPositions = new int[count];
+            this.firstChildren = new int[count];
+            this.nextSiblings = new int[count];
+            Arrays.fill(firstChildren, -1);
+            Arrays.fill(nextSiblings, -1);
+            var lastChildren = new int[count];
+            for (int i = 0; i < count; i++) {
+                int parent = reader.readVarInt();
+                if (i == 0 ? parent != -1 : parent < 0 || parent >= i) {
+                    throw new IllegalArgumentException("History bundle is damaged");
+                }
+                parents[i] = parent;
+                nameTexts[i] = reader.readString();
+                int position = this.data.limit() - reader.remaining();
+                historyPositions[i] = this.data.get(position) != 0 ? position : -1;
+                reader.skipHistory();
+                if (parent >= 0) {
+                    if (firstChildren[parent] < 0) {
+                        firstChildren[parent] = i;
+                    } else {
+                        nextSiblings[lastChildren[parent]] = i;
+                    }
+                    lastChildren[parent] = i;
+                }
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("History bundle is truncated", ex);
+        }
+    }
+
+    /**
+     * Returns the number of the components.
+     */
+    public int size() {
+        return parents.length;
+    }
+
+    /**
+     * Returns the index of the parent of the component.
+     *
+     * @param index the index of the component in depth-first order
+     * @return the index of the parent or -1 for the root
+     */
+    public int getParent(int index) {
+        return parents[index];
+    }
+
+    /**
+     * Returns the index of the first child of the component.
+     *
+     * @param index the index of the component
+     * @return the index of the child or -1 if the component has no children
+     */
+    public int getFirstChild(int index) {
+        return firstChildren[index];
+    }
+
+    /**
+     * Returns the index of the next sibling of the component.
+     *
+     * @param index the index of the component
+     * @return the index of the sibling or -1 if the component is the last child
+     */
+    public int getNextSibling(int index) {
+        return nextSiblings[index];
+    }
+
+    public @Nullable String getNameText(int index) {
+        return nameTexts[index];
+    }
+
+    public boolean hasHistory(int index) {
+        return historyPositions[index] >= 0;
+    }
+
+    /**
+     * Decodes the history of the component.
+     *
+     * @param <T> the type of the history
+     * @param index the index of the component
+     * @param codec the codec of the history
+     * @return the history or {@code null} if the component has no history
+     */
+    public <T extends AbstractComponentHistory> @Nullable T decodeHistory(int index, HistoryCodec<T> codec) {
+        int position = historyPositions[index];
+        if (position < 0) {
+            return null;
+        }
+        return new HistoryReader(data.duplicate().position(position)).readHistory(codec);
+    }
+
+    /**
+     * Returns the size of the bundle in bytes.
+     */
+    public int getByteSize() {
+        return data.limit();
+    }
+
+    /**
+     * Returns a read-only buffer with the bundle.
+     */
+    public ByteBuffer toByteBuffer() {
+        return data.duplicate();
+    }
+
+    /**
+     * Writes the bundle to the file with one write. The bundle is written to a temporary file next to the target
+     * one, that then replaces the target file, so the previous bundle is not damaged if the write fails.
+     *
+     * @param path the path of the file
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(Path path) throws IOException {
+        var tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffer = data.duplicate();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public String toString() {
+        return "TreeHistoryBundle[components=" + size() + ", bytes=" + getByteSize() + "]";
+    }
+}
@@ -24,5 +24,35 @@ import java.util.Iterator;
  */
 public interface TreeIterator<T> extends Iterator<T> {
 
+    /**
+     * Returns the depth of the element returned by the last call of {@link #next()}. The depth of the root is zero.
+     *
+     * @return the depth
+     * @throws IllegalStateException if {@code next()} hasn't been called yet
+     */
     int getDepth();
+
+    /**
+     * Excludes the descendants of the element returned by the last call of {@link #next()} from the iteration.
+     * The children of an element are read when the element is returned, so the method drops them and the skipped
+     * subtree is not visited.
+     *
+     * @throws IllegalStateException if {@code next()} hasn't been called yet
+     */
+    void skipChildren();
+
+    /**
+     * Returns the maximum depth of the returned elements. The default value is {@link Integer#MAX_VALUE}.
+     *
+     * @return the maximum depth
+     */
+    int getMaxDepth();
+
+    /**
+     * Sets the maximum depth of the returned elements. The children of the elements at the maximum depth are not
+     * read. For example, the depth of zero limits the iteration to the root.
+     *
+     * @param maxDepth the maximum depth, not negative
+     */
+    void setMaxDepth(int maxDepth);
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Unmodifiable;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An immutable snapshot of a component subtree. Snapshots are persistent: when a tree is captured again, the
+ * subtrees that haven't changed since the previous capture are taken from the previous snapshot as is, so the new
+ * and the old snapshots share them. {@link TreeDiff} relies on this sharing to skip unchanged subtrees.
+ *
+ * @author Pavel Castornii
+ * @see AbstractTreeSnapshotter
+ */
+public final class TreeSnapshot {
+
+    private final UUID uuid;
+
+    private final ComponentName name;
+
+    private final ComponentState state;
+
+    private final long version;
+
+    private final List<TreeSnapshot> children;
+
+    private final int size;
+
+    TreeSnapshot(DescriptorBase descriptor, long version, List<TreeSnapshot> children) {
+        this.uuid = descriptor.getUuid();
+        this.name = descriptor.getName();
+        this.state = descriptor.getState();
+        this.version = version;
+        this.children = children;
+        int size = 1;
+        for (var child : children) {
+            size += child.size;
+        }
+        this.size = size;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public ComponentName getName() {
+        return name;
+    }
+
+    public ComponentState getState() {
+        return state;
+    }
+
+    /**
+     * Returns the version of the subtree at the moment of the capture or a negative number if the subtree wasn't
+     * versioned.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public @Unmodifiable List<TreeSnapshot> getChildren() {
+        return children;
+    }
+
+    /**
+     * Returns the number of the components in this subtree including the root.
+     *
+     * @return the number of components
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "TreeSnapshot[name=" + name.getText() + ", uuid=" + uuid + ", state=" + state + ", size=" + size + "]";
+    }
+}
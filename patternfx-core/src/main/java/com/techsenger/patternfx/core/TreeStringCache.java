@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+
+/**
+ * The cache of the rendered line of one tree node that is used by {@link AbstractTreeStringRenderer}. The cache has a
+ * version that the owner of the node increments every time the children of the node or of any of its descendants
+ * change, or the state of the node or of any of its descendants changes. So the same version is also used by
+ * {@link AbstractTreeSnapshotter}. The line is valid until the version changes.
+ *
+ * <p>This class is not thread-safe, it is intended to be used in the JavaFX Application Thread.
+ *
+ * @author Pavel Castornii
+ */
+public final class TreeStringCache {
+
+    private long version;
+
+    private long lineVersion = -1;
+
+    private @Nullable String line;
+
+    /**
+     * Returns the structural version of the subtree.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Increments the structural version of the subtree, so the line rendered before becomes invalid.
+     */
+    public void incrementVersion() {
+        version++;
+    }
+
+    @Nullable String getLine() {
+        if (lineVersion != version) {
+            return null;
+        }
+        return line;
+    }
+
+    void setLine(String line) {
+        this.line = line;
+        this.lineVersion = version;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core;
+
+import com.techsenger.annotations.Nullable;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * A thread-safe set that compares its elements by identity and keeps weak references to them, so an element that
+ * was never removed leaves the set after it is garbage collected. It is used by the application-wide indexes, so
+ * that they never keep components alive.
+ *
+ * @author Pavel Castornii
+ */
+final class WeakIdentitySet<T> {
+
+    private static final class Key<T> extends WeakReference<T> {
+
+        private final int hash;
+
+        Key(T element, ReferenceQueue<? super T> queue) {
+            super(element, queue);
+            this.hash = System.identityHashCode(element);
+        }
+
+        Key(T element) {
+            super(element);
+            this.hash = System.identityHashCode(element);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key<?>)) {
+                return false;
+            }
+            var element = get();
+            return element != null && element == ((Key<?>) obj).get();
+        }
+    }
+
+    private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+    private final Map<Key<T>, Boolean> keys = new ConcurrentHashMap<>();
+
+    void add(T element) {
+        expunge();
+        keys.putIfAbsent(new Key<>(element, queue), Boolean.TRUE);
+    }
+
+    void remove(T element) {
+        keys.remove(new Key<>(element));
+        expunge();
+    }
+
+    boolean contains(T element) {
+        return keys.containsKey(new Key<>(element));
+    }
+
+    /**
+     * Returns the number of elements. The value can include the elements that were garbage collected but have not
+     * been expunged yet.
+     */
+    int size() {
+        expunge();
+        return keys.size();
+    }
+
+    boolean isEmpty() {
+        expunge();
+        for (var key : keys.keySet()) {
+            if (key.get() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void forEach(Consumer<? super T> action) {
+        for (var key : keys.keySet()) {
+            var element = key.get();
+            if (element != null) {
+                action.accept(element);
+            }
+        }
+    }
+
+    List<T> toList() {
+        var result = new ArrayList<T>(keys.size());
+        forEach(result::add);
+        return result;
+    }
+
+    private void expunge() {
+        Object key;
+        while ((key = queue.poll()) != null) {
+            keys.remove(key);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core.jfr;
+
+import com.techsenger.annotations.Nullable;
+import com.techsenger.patternfx.core.DescriptorBase;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * The base class of the events that relate to one component. The component fields are filled only when the event
+ * is going to be committed, so a disabled event costs almost nothing:
+ * <pre>{@code
+ * var event = new ComponentInitializeEvent();
+ * event.begin();
+ * ...
+ * event.end();
+ * if (event.shouldCommit()) {
+ *     event.setComponent(descriptor);
+ *     event.commit();
+ * }
+ * }</pre>
+ *
+ * @author Pavel Castornii
+ */
+@Category({"JavaFX", "PatternFX"})
+@StackTrace(false)
+public abstract class AbstractComponentEvent extends Event {
+
+    @Label("Component Name")
+    private @Nullable String componentName;
+
+    @Label("Short UUID")
+    private @Nullable String shortUuid;
+
+    /**
+     * Copies the name and the short UUID of the component to this event.
+     *
+     * @param descriptor the descriptor of the component
+     */
+    public void setComponent(DescriptorBase descriptor) {
+        this.componentName = descriptor.getName().getText();
+        this.shortUuid = descriptor.getShortUuid();
+    }
+
+    public @Nullable String getComponentName() {
+        return componentName;
+    }
+
+    public @Nullable String getShortUuid() {
+        return shortUuid;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core.jfr;
+
+import com.techsenger.annotations.Nullable;
+import com.techsenger.patternfx.core.HistoryPolicy;
+import jdk.jfr.Label;
+
+/**
+ * The base class of the component events that depend on the {@link HistoryPolicy} of the component.
+ *
+ * @author Pavel Castornii
+ */
+public abstract class AbstractHistoryEvent extends AbstractComponentEvent {
+
+    @Label("History Policy")
+    private @Nullable String historyPolicy;
+
+    public @Nullable String getHistoryPolicy() {
+        return historyPolicy;
+    }
+
+    public void setHistoryPolicy(HistoryPolicy historyPolicy) {
+        this.historyPolicy = historyPolicy.name();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The initialization of one component, from the pre-initialization to the post-initialization inclusive.
+ *
+ * @author Pavel Castornii
+ */
+@Name("com.techsenger.patternfx.ComponentInitialize")
+@Label("Component Initialize")
+@Description("Initialization of a PatternFX component")
+public final class ComponentInitializeEvent extends AbstractHistoryEvent {
+
+    @Label("Depth")
+    @Description("The number of ancestors of the component")
+    private int depth;
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+}
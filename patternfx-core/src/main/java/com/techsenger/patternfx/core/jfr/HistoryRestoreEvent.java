@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Restoring the state of one component from its history or applying the default state.
+ *
+ * @author Pavel Castornii
+ */
+@Name("com.techsenger.patternfx.HistoryRestore")
+@Label("History Restore")
+@Description("Restoring the state of a PatternFX component from history")
+public final class HistoryRestoreEvent extends AbstractHistoryEvent {
+
+    @Label("Restored")
+    @Description("Whether the state was restored from history, otherwise the defaults were applied")
+    private boolean restored;
+
+    public boolean isRestored() {
+        return restored;
+    }
+
+    public void setRestored(boolean restored) {
+        this.restored = restored;
+    }
+}
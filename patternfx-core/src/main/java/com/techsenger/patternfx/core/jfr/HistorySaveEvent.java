@@ -0,0 +1,33 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Saving the state of one component to its history. Passing the history to the history sink is not included.
+ *
+ * @author Pavel Castornii
+ */
+@Name("com.techsenger.patternfx.HistorySave")
+@Label("History Save")
+@Description("Saving the state of a PatternFX component to history")
+public final class HistorySaveEvent extends AbstractHistoryEvent {
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.patternfx.core.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The deinitialization of a component tree. The component of the event is the root of the tree.
+ *
+ * @author Pavel Castornii
+ */
+@Name("com.techsenger.patternfx.TreeDeinitialize")
+@Label("Tree Deinitialize")
+@Description("Deinitialization of a tree of PatternFX components")
+public final class TreeDeinitializeEvent extends AbstractComponentEvent {
+
+    @Label("Component Count")
+    @Description("The number of deinitialized components")
+    private int componentCount;
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public void setComponentCount(int componentCount) {
+        this.componentCount = componentCount;
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * JDK Flight Recorder events of PatternFX components. The events belong to the {@code JavaFX} category, so in
+ * recordings they are shown next to the pulse events of the JavaFX runtime.
+ */
+@NullMarked
+package com.techsenger.patternfx.core.jfr;
+
+import com.techsenger.annotations.NullMarked;
@@ -20,6 +20,8 @@ module com.techsenger.patternfx.core {
     requires com.techsenger.annotations;
     requires javafx.base;
     requires javafx.graphics;
+    requires jdk.jfr;
 
     exports com.techsenger.patternfx.core;
+    exports com.techsenger.patternfx.core.jfr;
 }
\ No newline at end of file
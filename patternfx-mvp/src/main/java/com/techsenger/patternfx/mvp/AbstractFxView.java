@@ -16,6 +16,9 @@
 
 package com.techsenger.patternfx.mvp;
 
+import com.techsenger.patternfx.core.LifecyclePhase;
+import com.techsenger.patternfx.core.LifecycleTimings;
+
 /**
  *
  * @author Pavel Castornii
@@ -29,18 +32,30 @@ public abstract class AbstractFxView<P extends Presenter<?>> extends AbstractVie
 
     @Override
     protected void initialize() {
+        var descriptor = getDescriptor();
+        long time = LifecycleTimings.start();
         build();
+        time = LifecycleTimings.record(descriptor, LifecyclePhase.BUILD, time);
         bind();
+        time = LifecycleTimings.record(descriptor, LifecyclePhase.BIND, time);
         addListeners();
+        time = LifecycleTimings.record(descriptor, LifecyclePhase.ADD_LISTENERS, time);
         addHandlers();
+        LifecycleTimings.record(descriptor, LifecyclePhase.ADD_HANDLERS, time);
     }
 
     @Override
     protected void deinitialize() {
+        var descriptor = getDescriptor();
+        long time = LifecycleTimings.start();
         removeHandlers();
+        time = LifecycleTimings.record(descriptor, LifecyclePhase.REMOVE_HANDLERS, time);
         removeListeners();
+        time = LifecycleTimings.record(descriptor, LifecyclePhase.REMOVE_LISTENERS, time);
         unbind();
+        time = LifecycleTimings.record(descriptor, LifecyclePhase.UNBIND, time);
         unbuild();
+        LifecycleTimings.record(descriptor, LifecyclePhase.UNBUILD, time);
     }
 
     /**
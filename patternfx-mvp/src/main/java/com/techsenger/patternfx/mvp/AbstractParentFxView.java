@@ -16,13 +16,23 @@
 
 package com.techsenger.patternfx.mvp;
 
+import com.techsenger.annotations.Nullable;
 import com.techsenger.annotations.Unmodifiable;
 import com.techsenger.patternfx.core.AbstractBreadthFirstIterator;
 import com.techsenger.patternfx.core.AbstractDepthFirstIterator;
+import com.techsenger.patternfx.core.AbstractTreeSnapshotter;
+import com.techsenger.patternfx.core.AbstractTreeSpliterator;
+import com.techsenger.patternfx.core.AbstractTreeStringRenderer;
+import com.techsenger.patternfx.core.CompactTreeSnapshot;
+import com.techsenger.patternfx.core.DescriptorBase;
 import com.techsenger.patternfx.core.TreeIterator;
+import com.techsenger.patternfx.core.TreeSnapshot;
+import com.techsenger.patternfx.core.TreeStringCache;
 import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
@@ -43,6 +53,8 @@ public abstract class AbstractParentFxView<P extends ParentPresenter<?>> extends
         private final ObservableList<ChildFxView<?>> children =
                 FXCollections.unmodifiableObservableList(modifiableChildren);
 
+        private final TreeStringCache treeStringCache = new TreeStringCache();
+
         public Composer() {
             modifiableChildren.addListener((ListChangeListener<ChildFxView<?>>) (e) -> {
                 while (e.next()) {
@@ -57,6 +69,7 @@ public abstract class AbstractParentFxView<P extends ParentPresenter<?>> extends
                         }
                     }
                 }
+                incrementTreeVersion();
             });
         }
 
@@ -75,9 +88,8 @@ public abstract class AbstractParentFxView<P extends ParentPresenter<?>> extends
             return new AbstractDepthFirstIterator<ParentPort, ParentFxView<?>>(view) {
 
                 @Override
-                @SuppressWarnings("unchecked")
-                protected List<ParentFxView<?>> getChildren(ParentFxView<?> parent) {
-                    return (List<ParentFxView<?>>) (List<?>) parent.getComposer().getChildren();
+                protected List<? extends ParentFxView<?>> getChildren(ParentFxView<?> parent) {
+                    return parent.getComposer().getChildren();
                 }
 
                 @Override
@@ -92,9 +104,8 @@ public abstract class AbstractParentFxView<P extends ParentPresenter<?>> extends
             return new AbstractBreadthFirstIterator<ParentPort, ParentFxView<?>>(view) {
 
                 @Override
-                @SuppressWarnings("unchecked")
-                protected List<ParentFxView<?>> getChildren(ParentFxView<?> parent) {
-                    return (List<ParentFxView<?>>) (List<?>) parent.getComposer().getChildren();
+                protected List<? extends ParentFxView<?>> getChildren(ParentFxView<?> parent) {
+                    return parent.getComposer().getChildren();
                 }
 
                 @Override
@@ -104,9 +115,19 @@ public abstract class AbstractParentFxView<P extends ParentPresenter<?>> extends
             };
         }
 
+        @Override
+        public Stream<ParentPort> portStream() {
+            return StreamSupport.stream(portSpliterator(), false);
+        }
+
+        @Override
+        public Stream<ParentPort> parallelPortStream() {
+            return StreamSupport.stream(portSpliterator(), true);
+        }
+
         @Override
         public String toPortTreeString(BiConsumer<ParentPort, StringBuilder> appender) {
-            return toTreeString(depthFirstPortIterator(), appender);
+            return portTreeStringRenderer.render(view, appender);
         }
 
         @Override
@@ -119,9 +140,8 @@ public abstract class AbstractParentFxView<P extends ParentPresenter<?>> extends
             return new AbstractDepthFirstIterator<ParentFxView<?>, ParentFxView<?>>(view) {
 
                 @Override
-                @SuppressWarnings("unchecked")
-                protected List<ParentFxView<?>> getChildren(ParentFxView<?> parent) {
-                    return (List<ParentFxView<?>>) (List<?>) parent.getComposer().getChildren();
+                protected List<? extends ParentFxView<?>> getChildren(ParentFxView<?> parent) {
+                    return parent.getComposer().getChildren();
                 }
 
                 @Override
@@ -136,9 +156,8 @@ public abstract class AbstractParentFxView<P extends ParentPresenter<?>> extends
             return new AbstractBreadthFirstIterator<ParentFxView<?>, ParentFxView<?>>(view) {
 
                 @Override
-                @SuppressWarnings("unchecked")
-                protected List<ParentFxView<?>> getChildren(ParentFxView<?> parent) {
-                    return (List<ParentFxView<?>>) (List<?>) parent.getComposer().getChildren();
+                protected List<? extends ParentFxView<?>> getChildren(ParentFxView<?> parent) {
+                    return parent.getComposer().getChildren();
                 }
 
                 @Override
@@ -148,36 +167,155 @@ public abstract class AbstractParentFxView<P extends ParentPresenter<?>> extends
             };
         }
 
+        @Override
+        public Stream<ParentFxView<?>> stream() {
+            return StreamSupport.stream(spliterator(), false);
+        }
+
+        @Override
+        public Stream<ParentFxView<?>> parallelStream() {
+            return StreamSupport.stream(spliterator(), true);
+        }
+
         @Override
         public String toTreeString() {
-            return toTreeString(depthFirstIterator(),
-                    (v, b) -> b.append(v.getDescriptor().getFullName()));
+            return toTreeString(fullNameAppender);
         }
 
         @Override
         public String toTreeString(BiConsumer<ParentFxView<?>, StringBuilder> appender) {
-            return toTreeString(depthFirstIterator(), appender);
+            return treeStringRenderer.render(view, appender);
+        }
+
+        @Override
+        public TreeSnapshot captureSnapshot(@Nullable TreeSnapshot previous) {
+            return treeSnapshotter.capture(view, previous);
+        }
+
+        @Override
+        public CompactTreeSnapshot captureCompactSnapshot() {
+            return CompactTreeSnapshot.<ParentFxView<?>>capture(view, v -> v.getComposer().getChildren(),
+                    v -> v.getPresenter().getDescriptor());
         }
 
         protected ObservableList<ChildFxView<?>> getModifiableChildren() {
             return modifiableChildren;
         }
 
-        private <T> String toTreeString(TreeIterator<T> iterator, BiConsumer<T, StringBuilder> appender) {
-            var builder = new StringBuilder();
-            var sep = System.lineSeparator();
-            while (iterator.hasNext()) {
-                var c = iterator.next();
-                if (builder.length() > 0) {
-                    builder.append(sep);
+        private AbstractTreeSpliterator<ParentPort, ParentFxView<?>> portSpliterator() {
+            return new AbstractTreeSpliterator<ParentPort, ParentFxView<?>>(view) {
+
+                @Override
+                protected List<? extends ParentFxView<?>> getChildren(ParentFxView<?> parent) {
+                    return parent.getComposer().getChildren();
+                }
+
+                @Override
+                protected ParentPort map(ParentFxView<?> value) {
+                    return value.getPresenter();
+                }
+            };
+        }
+
+        private AbstractTreeSpliterator<ParentFxView<?>, ParentFxView<?>> spliterator() {
+            return new AbstractTreeSpliterator<ParentFxView<?>, ParentFxView<?>>(view) {
+
+                @Override
+                protected List<? extends ParentFxView<?>> getChildren(ParentFxView<?> parent) {
+                    return parent.getComposer().getChildren();
+                }
+
+                @Override
+                protected ParentFxView<?> map(ParentFxView<?> value) {
+                    return value;
+                }
+            };
+        }
+
+        /**
+         * Increments the version of this subtree and of all the subtrees that contain it. The version is incremented
+         * when the children change and when the state of the component changes.
+         */
+        void incrementTreeVersion() {
+            treeStringCache.incrementVersion();
+            if (view instanceof ChildFxView<?> child) {
+                var parent = child.getComposer().getParent();
+                if (parent != null && parent.getComposer() instanceof AbstractParentFxView<?>.Composer composer) {
+                    composer.incrementTreeVersion();
                 }
-                builder.append("    ".repeat(iterator.getDepth()));
-                appender.accept(c, builder);
             }
-            return builder.toString();
         }
     }
 
+    /**
+     * Renders the View tree caching the lines of the Views that extend this class.
+     */
+    private abstract static class TreeStringRenderer<T> extends AbstractTreeStringRenderer<T, ParentFxView<?>> {
+
+        TreeStringRenderer() {
+            super();
+        }
+
+        TreeStringRenderer(BiConsumer<T, StringBuilder> cachedAppender) {
+            super(cachedAppender);
+        }
+
+        @Override
+        protected List<? extends ParentFxView<?>> getChildren(ParentFxView<?> parent) {
+            return parent.getComposer().getChildren();
+        }
+
+        @Override
+        protected @Nullable TreeStringCache getCache(ParentFxView<?> node) {
+            if (node.getComposer() instanceof AbstractParentFxView<?>.Composer composer) {
+                return composer.treeStringCache;
+            }
+            return null;
+        }
+    }
+
+    private static final BiConsumer<ParentFxView<?>, StringBuilder> fullNameAppender =
+            (v, b) -> b.append(v.getDescriptor().getFullName());
+
+    private static final TreeStringRenderer<ParentFxView<?>> treeStringRenderer =
+            new TreeStringRenderer<>(fullNameAppender) {
+
+        @Override
+        protected ParentFxView<?> map(ParentFxView<?> value) {
+            return value;
+        }
+    };
+
+    private static final TreeStringRenderer<ParentPort> portTreeStringRenderer = new TreeStringRenderer<>() {
+
+        @Override
+        protected ParentPort map(ParentFxView<?> value) {
+            return value.getPresenter();
+        }
+    };
+
+    private static final AbstractTreeSnapshotter<ParentFxView<?>> treeSnapshotter =
+            new AbstractTreeSnapshotter<>() {
+
+        @Override
+        protected List<? extends ParentFxView<?>> getChildren(ParentFxView<?> parent) {
+            return parent.getComposer().getChildren();
+        }
+
+        @Override
+        protected DescriptorBase getDescriptor(ParentFxView<?> node) {
+            return node.getDescriptor();
+        }
+
+        @Override
+        protected long getVersion(ParentFxView<?> node) {
+            if (node.getComposer() instanceof AbstractParentFxView<?>.Composer composer) {
+                return composer.treeStringCache.getVersion();
+            }
+            return -1;
+        }
+    };
+
     private final Composer composer;
 
     public AbstractParentFxView() {
@@ -16,6 +16,15 @@
 
 package com.techsenger.patternfx.mvp;
 
+import com.techsenger.annotations.Nullable;
+import com.techsenger.patternfx.core.AbstractComponentHistory;
+import com.techsenger.patternfx.core.AbstractTreeHistoryBundler;
+import com.techsenger.patternfx.core.ComponentState;
+import com.techsenger.patternfx.core.DescriptorBase;
+import com.techsenger.patternfx.core.HistoryCodecResolver;
+import com.techsenger.patternfx.core.TreeHistoryBundle;
+import com.techsenger.patternfx.core.jfr.TreeDeinitializeEvent;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,23 +37,90 @@ public abstract class AbstractParentPresenter<V extends ParentView> extends Abst
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractParentPresenter.class);
 
+    private static final AbstractTreeHistoryBundler<ParentPort> treeHistoryBundler =
+            new AbstractTreeHistoryBundler<>() {
+
+        @Override
+        protected List<? extends ParentPort> getChildren(ParentPort parent) {
+            if (parent instanceof ParentPresenter<?> presenter) {
+                return presenter.getView().getComposer().getChildPorts();
+            }
+            return List.of();
+        }
+
+        @Override
+        protected DescriptorBase getDescriptor(ParentPort node) {
+            return node.getDescriptor();
+        }
+
+        @Override
+        protected @Nullable AbstractComponentHistory getHistory(ParentPort node) {
+            if (node instanceof AbstractPresenter<?> presenter) {
+                if (presenter.getDescriptor().getState() == ComponentState.INITIALIZED) {
+                    presenter.saveHistory();
+                }
+                return presenter.getHistory();
+            }
+            return null;
+        }
+
+        @Override
+        protected boolean restoreHistory(ParentPort node, AbstractComponentHistory history) {
+            if (node instanceof AbstractPresenter<?> presenter
+                    && history instanceof ComponentHistory componentHistory) {
+                presenter.applyHistory(componentHistory);
+                return true;
+            }
+            return false;
+        }
+    };
+
     public AbstractParentPresenter(V view, ComponentParams params) {
         super(view, params);
     }
 
     @Override
     public void deinitializeTree() {
+        var event = new TreeDeinitializeEvent();
+        event.begin();
         var composer = getView().getComposer();
         if (logger.isDebugEnabled()) {
             var tree = composer.toTreeString();
             logger.debug("{} Deinitializing this component tree:\n{}", getDescriptor().getLogPrefix(), tree);
         }
         var iterator = composer.breadthFirstPortIterator();
+        int count = 0;
         while (iterator.hasNext()) {
             var port = iterator.next();
             var presenter = (ParentPresenter<?>) port;
             presenter.deinitialize();
+            count++;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setComponent(getDescriptor());
+            event.setComponentCount(count);
+            event.commit();
+        }
+    }
+
+    @Override
+    public TreeHistoryBundle saveTreeHistory(HistoryCodecResolver resolver) {
+        var bundle = treeHistoryBundler.save(this, resolver);
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} Saved the tree history: {}", getDescriptor().getLogPrefix(), bundle);
+        }
+        return bundle;
+    }
+
+    @Override
+    public int restoreTreeHistory(TreeHistoryBundle bundle, HistoryCodecResolver resolver) {
+        int count = treeHistoryBundler.restore(this, bundle, resolver);
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} Restored the histories of {} components from {}", getDescriptor().getLogPrefix(), count,
+                    bundle);
         }
+        return count;
     }
 
     @Override
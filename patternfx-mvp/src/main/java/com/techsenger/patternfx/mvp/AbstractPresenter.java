@@ -17,6 +17,8 @@
 package com.techsenger.patternfx.mvp;
 
 import com.techsenger.annotations.Nullable;
+import com.techsenger.patternfx.core.ComponentNameIndex;
+import com.techsenger.patternfx.core.ComponentRegistry;
 import com.techsenger.patternfx.core.ComponentState;
 import com.techsenger.patternfx.core.HistoryPolicy;
 import static com.techsenger.patternfx.core.HistoryPolicy.ALL;
@@ -24,6 +26,16 @@ import static com.techsenger.patternfx.core.HistoryPolicy.APPEARANCE;
 import static com.techsenger.patternfx.core.HistoryPolicy.DATA;
 import static com.techsenger.patternfx.core.HistoryPolicy.NONE;
 import com.techsenger.patternfx.core.HistoryProvider;
+import com.techsenger.patternfx.core.HistorySink;
+import com.techsenger.patternfx.core.LifecyclePhase;
+import com.techsenger.patternfx.core.LifecycleTimings;
+import com.techsenger.patternfx.core.jfr.ComponentDeinitializeEvent;
+import com.techsenger.patternfx.core.jfr.ComponentInitializeEvent;
+import com.techsenger.patternfx.core.jfr.HistoryRestoreEvent;
+import com.techsenger.patternfx.core.jfr.HistorySaveEvent;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,6 +55,10 @@ public abstract class AbstractPresenter<V extends View> implements Presenter<V>
 
     private @Nullable HistoryProvider<? extends ComponentHistory> historyProvider;
 
+    private @Nullable CompletableFuture<? extends ComponentHistory> historyFuture;
+
+    private @Nullable HistorySink<? extends ComponentHistory> historySink;
+
     private @Nullable ComponentHistory history;
 
     public AbstractPresenter(V view, ComponentParams params) {
@@ -51,6 +67,11 @@ public abstract class AbstractPresenter<V extends View> implements Presenter<V>
         this.descriptor = createDescriptor();
         this.historyPolicy = params.getHistoryPolicy();
         this.historyProvider = params.getHistoryProvider();
+        this.historySink = params.getHistorySink();
+        var asyncHistoryProvider = params.getAsyncHistoryProvider();
+        if (asyncHistoryProvider != null) {
+            this.historyFuture = asyncHistoryProvider.provide();
+        }
         if (this.view instanceof AbstractView<?>) {
             ((AbstractView<?>) this.view).setPresenter(this);
         }
@@ -68,18 +89,46 @@ public abstract class AbstractPresenter<V extends View> implements Presenter<V>
             if (descriptor.getState() != ComponentState.CREATING) {
                 throw new IllegalStateException("Unexpected state of the component - " + descriptor.getState().name());
             }
+            ComponentRegistry.register(descriptor, this);
+            var event = new ComponentInitializeEvent();
+            event.begin();
+            long startTime = LifecycleTimings.start();
             // pre-initialization
             preInitialize();
+            LifecycleTimings.record(descriptor, LifecyclePhase.PRE_INITIALIZE, startTime);
             // initialization
-            descriptor.setState(ComponentState.INITIALIZING);
+            setState(ComponentState.INITIALIZING);
             if (getView() instanceof AbstractView<?>) {
                 ((AbstractView<?>) getView()).initialize();
             }
+            long time = LifecycleTimings.start();
+            var restoreEvent = new HistoryRestoreEvent();
+            restoreEvent.begin();
             applyOrRestoreHistory();
-            descriptor.setState(ComponentState.INITIALIZED);
-            logger.debug("{} Initialized the component", getDescriptor().getLogPrefix());
+            restoreEvent.end();
+            if (restoreEvent.shouldCommit()) {
+                restoreEvent.setComponent(descriptor);
+                restoreEvent.setHistoryPolicy(historyPolicy);
+                restoreEvent.setRestored(historyPolicy != NONE && history != null && !history.isNew());
+                restoreEvent.commit();
+            }
+            time = LifecycleTimings.record(descriptor, LifecyclePhase.RESTORE_HISTORY, time);
+            setState(ComponentState.INITIALIZED);
+            ComponentNameIndex.add(descriptor, this);
+            if (logger.isDebugEnabled()) {
+                logger.debug("{} Initialized the component", getDescriptor().getLogPrefix());
+            }
             // post-initialization
             postInitialize();
+            LifecycleTimings.record(descriptor, LifecyclePhase.POST_INITIALIZE, time);
+            LifecycleTimings.record(descriptor, LifecyclePhase.INITIALIZE, startTime);
+            event.end();
+            if (event.shouldCommit()) {
+                event.setComponent(descriptor);
+                event.setHistoryPolicy(historyPolicy);
+                event.setDepth(getDepth());
+                event.commit();
+            }
         } catch (Exception ex) {
             logger.error("{} Error initializing", getDescriptor().getLogPrefix(), ex);
         }
@@ -92,18 +141,46 @@ public abstract class AbstractPresenter<V extends View> implements Presenter<V>
             if (descriptor.getState() != ComponentState.INITIALIZED) {
                 throw new IllegalStateException("Unexpected state of the component - " + descriptor.getState().name());
             }
+            var event = new ComponentDeinitializeEvent();
+            event.begin();
+            long startTime = LifecycleTimings.start();
             // pre-deinitialization
             preDeinitialize();
+            long time = LifecycleTimings.record(descriptor, LifecyclePhase.PRE_DEINITIALIZE, startTime);
             // deinitialization
-            descriptor.setState(ComponentState.DEINITIALIZING);
+            setState(ComponentState.DEINITIALIZING);
+            ComponentNameIndex.remove(descriptor, this);
+            var saveEvent = new HistorySaveEvent();
+            saveEvent.begin();
             saveHistory();
+            saveEvent.end();
+            if (history != null && saveEvent.shouldCommit()) {
+                saveEvent.setComponent(descriptor);
+                saveEvent.setHistoryPolicy(historyPolicy);
+                saveEvent.commit();
+            }
+            passHistoryToSink();
+            LifecycleTimings.record(descriptor, LifecyclePhase.SAVE_HISTORY, time);
             if (getView() instanceof AbstractView<?>) {
                 ((AbstractView<?>) getView()).deinitialize();
             }
-            descriptor.setState(ComponentState.DEINITIALIZED);
-            logger.debug("{} Deinitialized the component", getDescriptor().getLogPrefix());
+            setState(ComponentState.DEINITIALIZED);
+            ComponentRegistry.unregister(descriptor);
+            if (logger.isDebugEnabled()) {
+                logger.debug("{} Deinitialized the component", getDescriptor().getLogPrefix());
+            }
             // post-deinitialization
+            time = LifecycleTimings.start();
             postDeinitialize();
+            LifecycleTimings.record(descriptor, LifecyclePhase.POST_DEINITIALIZE, time);
+            LifecycleTimings.record(descriptor, LifecyclePhase.DEINITIALIZE, startTime);
+            event.end();
+            if (event.shouldCommit()) {
+                event.setComponent(descriptor);
+                event.setHistoryPolicy(historyPolicy);
+                event.setDepth(getDepth());
+                event.commit();
+            }
         } catch (Exception ex) {
             logger.error("{} Error deinitializing", getDescriptor().getLogPrefix(), ex);
         }
@@ -146,6 +223,20 @@ public abstract class AbstractPresenter<V extends View> implements Presenter<V>
      */
     protected void postDeinitialize() { }
 
+    /**
+     * Saves the current persistent state of the initialized component into its history and passes the history to the
+     * history sink, as it is done during deinitialization. A component can call this method after important changes,
+     * so that a sink backed by a {@link com.techsenger.patternfx.core.HistoryJournal} persists the state
+     * continuously and the state survives a crash of the application.
+     */
+    protected final void checkpointHistory() {
+        if (getDescriptor().getState() != ComponentState.INITIALIZED) {
+            throw new IllegalStateException("Unexpected state of the component - " + getDescriptor().getState().name());
+        }
+        saveHistory();
+        passHistoryToSink();
+    }
+
     /**
      * Returns the history of the ComponentView.
      */
@@ -201,10 +292,40 @@ public abstract class AbstractPresenter<V extends View> implements Presenter<V>
 
     protected abstract ComponentDescriptor createDescriptor();
 
+    /**
+     * Returns the number of ancestors of this component.
+     */
+    private int getDepth() {
+        int depth = 0;
+        Object current = this;
+        while (current instanceof ChildPort child && child.getParent() != null) {
+            current = child.getParent();
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * Sets the state of the component and increments the version of the component tree.
+     */
+    private void setState(ComponentState state) {
+        descriptor.setState(state);
+        if (view instanceof AbstractParentFxView<?> parentView) {
+            parentView.getComposer().incrementTreeVersion();
+        }
+    }
+
     private void prepareHistory() {
         if (this.historyProvider != null) {
             this.history = this.historyProvider.provide();
             this.historyProvider = null;
+        } else if (this.historyFuture != null) {
+            try {
+                this.history = this.historyFuture.join();
+            } catch (CompletionException | CancellationException ex) {
+                logger.error("{} Error loading history", getDescriptor().getLogPrefix(), ex);
+            }
+            this.historyFuture = null;
         }
     }
 
@@ -230,30 +351,44 @@ public abstract class AbstractPresenter<V extends View> implements Presenter<V>
      * </ul>
      */
     private void applyOrRestoreHistory() {
-        logger.debug("{} History policy during initialization: {}", getDescriptor().getLogPrefix(), historyPolicy);
+        var debug = logger.isDebugEnabled();
+        if (debug) {
+            logger.debug("{} History policy during initialization: {}", getDescriptor().getLogPrefix(),
+                    historyPolicy);
+        }
         if (historyPolicy == NONE || history == null || history.isNew()) {
             applyData();
             applyAppearance();
-            logger.debug("{} Data and appearance set to defaults. Reason: {}", getDescriptor().getLogPrefix(),
-                    historyPolicy == NONE ? "policy is NONE" : history == null ? "history is null" : "history is new");
+            if (debug) {
+                logger.debug("{} Data and appearance set to defaults. Reason: {}", getDescriptor().getLogPrefix(),
+                        historyPolicy == NONE ? "policy is NONE"
+                                : history == null ? "history is null" : "history is new");
+            }
         } else {
             switch (historyPolicy) {
                 case DATA -> {
                     restoreData();
                     applyAppearance();
-                    logger.debug("{} Data restored from history, appearance set to defaults",
-                            getDescriptor().getLogPrefix());
+                    if (debug) {
+                        logger.debug("{} Data restored from history, appearance set to defaults",
+                                getDescriptor().getLogPrefix());
+                    }
                 }
                 case APPEARANCE -> {
                     applyData();
                     restoreAppearance();
-                    logger.debug("{} Data set to defaults, appearance restored from history",
-                            getDescriptor().getLogPrefix());
+                    if (debug) {
+                        logger.debug("{} Data set to defaults, appearance restored from history",
+                                getDescriptor().getLogPrefix());
+                    }
                 }
                 case ALL -> {
                     restoreData();
                     restoreAppearance();
-                    logger.debug("{} Data and appearance restored from history", getDescriptor().getLogPrefix());
+                    if (debug) {
+                        logger.debug("{} Data and appearance restored from history",
+                                getDescriptor().getLogPrefix());
+                    }
                 }
                 default -> throw new AssertionError();
             }
@@ -277,11 +412,14 @@ public abstract class AbstractPresenter<V extends View> implements Presenter<V>
      * Depending on the {@link HistoryPolicy}, this method delegates to {@link #saveData()} and/or
      * {@link #saveAppearance()}.
      */
-    private void saveHistory() {
+    void saveHistory() {
         if (this.history == null) {
             return;
         }
-        logger.debug("{} History policy during deinitialization: {}", getDescriptor().getLogPrefix(), historyPolicy);
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} History policy during deinitialization: {}", getDescriptor().getLogPrefix(),
+                    historyPolicy);
+        }
         switch (historyPolicy) {
             case DATA -> {
                 saveData();
@@ -300,4 +438,42 @@ public abstract class AbstractPresenter<V extends View> implements Presenter<V>
             default -> throw new AssertionError();
         }
     }
+
+    /**
+     * Sets the history restored from a bundle. If the component is initialized, its persistent state is restored
+     * from the history immediately, otherwise the history is used during initialization instead of the history
+     * provider.
+     */
+    void applyHistory(ComponentHistory history) {
+        this.history = history;
+        this.historyProvider = null;
+        if (this.historyFuture != null) {
+            // the loaded history is replaced by the bundle, so loading it is not needed
+            this.historyFuture.cancel(false);
+            this.historyFuture = null;
+        }
+        if (getDescriptor().getState() == ComponentState.INITIALIZED) {
+            applyOrRestoreHistory();
+        }
+    }
+
+    private void passHistoryToSink() {
+        if (this.historySink == null || this.history == null) {
+            return;
+        }
+        if (this.history.isDirty(historyPolicy)) {
+            offerHistory(this.historySink, this.history);
+            this.history.clearDirty();
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("{} History has no changes to persist, skipping the sink", getDescriptor().getLogPrefix());
+        }
+    }
+
+    /**
+     * The sink receives the history created by the provider, so their types match.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends ComponentHistory> void offerHistory(HistorySink<T> sink, ComponentHistory history) {
+        sink.accept((T) history);
+    }
 }
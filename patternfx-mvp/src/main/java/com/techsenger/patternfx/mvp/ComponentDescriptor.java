@@ -24,6 +24,8 @@ import com.techsenger.patternfx.core.ComponentState;
 import java.util.UUID;
 
 /**
+ * The descriptor of an MVP component. It doesn't expose state and group as observables, so they are kept in plain
+ * fields and no JavaFX properties are created for MVP components.
  *
  * @author Pavel Castornii
  */
@@ -17,8 +17,10 @@
 package com.techsenger.patternfx.mvp;
 
 import com.techsenger.annotations.Nullable;
+import com.techsenger.patternfx.core.AsyncHistoryProvider;
 import com.techsenger.patternfx.core.HistoryPolicy;
 import com.techsenger.patternfx.core.HistoryProvider;
+import com.techsenger.patternfx.core.HistorySink;
 import java.util.Objects;
 
 /**
@@ -31,6 +33,10 @@ public class ComponentParams {
 
     private @Nullable HistoryProvider<? extends ComponentHistory> historyProvider;
 
+    private @Nullable AsyncHistoryProvider<? extends ComponentHistory> asyncHistoryProvider;
+
+    private @Nullable HistorySink<? extends ComponentHistory> historySink;
+
     public HistoryPolicy getHistoryPolicy() {
         return historyPolicy;
     }
@@ -47,7 +53,39 @@ public class ComponentParams {
         this.historyProvider = historyProvider;
     }
 
+    public @Nullable AsyncHistoryProvider<? extends ComponentHistory> getAsyncHistoryProvider() {
+        return asyncHistoryProvider;
+    }
+
+    /**
+     * Sets the provider that starts loading the history when the presenter is created. It can't be used together
+     * with the synchronous history provider.
+     *
+     * @param asyncHistoryProvider the provider or {@code null}
+     */
+    public void setAsyncHistoryProvider(@Nullable AsyncHistoryProvider<? extends ComponentHistory>
+            asyncHistoryProvider) {
+        this.asyncHistoryProvider = asyncHistoryProvider;
+    }
+
+    public @Nullable HistorySink<? extends ComponentHistory> getHistorySink() {
+        return historySink;
+    }
+
+    /**
+     * Sets the sink that receives the history after the component state was saved into it. The sink must accept the
+     * type of the history returned by the history provider.
+     *
+     * @param historySink the sink or {@code null}
+     */
+    public void setHistorySink(@Nullable HistorySink<? extends ComponentHistory> historySink) {
+        this.historySink = historySink;
+    }
+
     protected void validate() {
         Objects.requireNonNull(historyPolicy);
+        if (historyProvider != null && asyncHistoryProvider != null) {
+            throw new IllegalArgumentException("Only one of history provider and async history provider can be set");
+        }
     }
 }
@@ -19,6 +19,7 @@ package com.techsenger.patternfx.mvp;
 import com.techsenger.annotations.Unmodifiable;
 import com.techsenger.patternfx.core.TreeIterator;
 import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 import javafx.collections.ObservableList;
 
 /**
@@ -50,6 +51,22 @@ public interface ParentFxView<P extends ParentPresenter<?>> extends FxView<P>, P
          */
         TreeIterator<ParentFxView<?>> breadthFirstIterator();
 
+        /**
+         * Returns a sequential stream of this View and all of its descendants in depth-first order.
+         *
+         * @return a stream over this View and all of its descendants
+         */
+        Stream<ParentFxView<?>> stream();
+
+        /**
+         * Returns a parallel stream of this View and all of its descendants. The tree is split at subtree
+         * boundaries, so the stream can be processed in the common {@link java.util.concurrent.ForkJoinPool}. The
+         * stream is intended for read-only operations, the tree must not be modified until the stream is processed.
+         *
+         * @return a parallel stream over this View and all of its descendants
+         */
+        Stream<ParentFxView<?>> parallelStream();
+
         /**
          * Returns a string representation of this View and all its descendants as a sub-tree with this View
          * as root, allowing the caller to customize the string output for each View.
@@ -16,6 +16,9 @@
 
 package com.techsenger.patternfx.mvp;
 
+import com.techsenger.patternfx.core.HistoryCodecResolver;
+import com.techsenger.patternfx.core.TreeHistoryBundle;
+
 /**
  *
  * @author Pavel Castornii
@@ -29,4 +32,24 @@ public interface ParentPresenter<V extends ParentView> extends Presenter<V>, Par
      * first, followed by its children level by level.
      */
     void deinitializeTree();
+
+    /**
+     * Saves the state of this component and all its descendants into their histories and writes the histories
+     * together with the structure of the subtree into one buffer.
+     *
+     * @param resolver the resolver of the history codecs
+     * @return the bundle
+     */
+    TreeHistoryBundle saveTreeHistory(HistoryCodecResolver resolver);
+
+    /**
+     * Restores the histories of the bundle into this component and its descendants that match the components of the
+     * bundle by name and position. The initialized components restore their state immediately, the components that
+     * are not initialized yet use the history during initialization.
+     *
+     * @param bundle the bundle
+     * @param resolver the resolver of the history codecs
+     * @return the number of the restored components
+     */
+    int restoreTreeHistory(TreeHistoryBundle bundle, HistoryCodecResolver resolver);
 }
@@ -16,10 +16,14 @@
 
 package com.techsenger.patternfx.mvp;
 
+import com.techsenger.annotations.Nullable;
 import com.techsenger.annotations.Unmodifiable;
+import com.techsenger.patternfx.core.CompactTreeSnapshot;
 import com.techsenger.patternfx.core.TreeIterator;
+import com.techsenger.patternfx.core.TreeSnapshot;
 import java.util.List;
 import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 /**
  *
@@ -63,6 +67,22 @@ public interface ParentView extends View {
         */
        TreeIterator<ParentPort> breadthFirstPortIterator();
 
+       /**
+        * Returns a sequential stream of this component and all of its descendants in depth-first order.
+        *
+        * @return a stream over this component and all of its descendants
+        */
+       Stream<ParentPort> portStream();
+
+       /**
+        * Returns a parallel stream of this component and all of its descendants. The tree is split at subtree
+        * boundaries, so the stream can be processed in the common {@link java.util.concurrent.ForkJoinPool}. The
+        * stream is intended for read-only operations, the tree must not be modified until the stream is processed.
+        *
+        * @return a parallel stream over this component and all of its descendants
+        */
+       Stream<ParentPort> parallelPortStream();
+
        /**
         * Returns a string representation of this component and all its descendants as a sub-tree with this
         * Presenter as root.
@@ -83,6 +103,24 @@ public interface ParentView extends View {
         * @return a tree-formatted string representation of this component
         */
        String toPortTreeString(BiConsumer<ParentPort, StringBuilder> appender);
+
+       /**
+        * Captures the snapshot of the component subtree with this component as root. The subtrees that haven't changed
+        * since the previous snapshot are shared with it, so the snapshots can be compared with
+        * {@link com.techsenger.patternfx.core.TreeDiff} at the cost proportional to the number of changes.
+        *
+        * @param previous the previous snapshot of this subtree or {@code null}
+        * @return the snapshot
+        */
+       TreeSnapshot captureSnapshot(@Nullable TreeSnapshot previous);
+
+       /**
+        * Captures the array-based snapshot of the component subtree with this component as root in one pass. The
+        * snapshot can be used by any thread.
+        *
+        * @return the snapshot
+        */
+       CompactTreeSnapshot captureCompactSnapshot();
     }
 
     /**
@@ -18,6 +18,7 @@ module com.techsenger.patternfx.mvp {
     requires org.slf4j;
     requires com.techsenger.annotations;
     requires com.techsenger.patternfx.core;
+    requires jdk.jfr;
     requires com.google.errorprone.annotations;
     requires javafx.base;
     requires javafx.graphics;
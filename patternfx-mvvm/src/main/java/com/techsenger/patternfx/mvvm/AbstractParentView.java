@@ -20,10 +20,16 @@ import com.techsenger.annotations.Nullable;
 import com.techsenger.annotations.Unmodifiable;
 import com.techsenger.patternfx.core.AbstractBreadthFirstIterator;
 import com.techsenger.patternfx.core.AbstractDepthFirstIterator;
+import com.techsenger.patternfx.core.AbstractTreeSpliterator;
+import com.techsenger.patternfx.core.AbstractTreeStringRenderer;
 import com.techsenger.patternfx.core.TreeIterator;
+import com.techsenger.patternfx.core.TreeStringCache;
+import com.techsenger.patternfx.core.jfr.TreeDeinitializeEvent;
 import com.techsenger.toolkit.fx.binding.ListBinder;
 import java.util.List;
 import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
@@ -39,11 +45,41 @@ public abstract class AbstractParentView<VM extends AbstractParentViewModel<?>>
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractParentView.class);
 
+    private static final BiConsumer<ParentView<?>, StringBuilder> fullNameAppender =
+            (v, b) -> b.append(v.getViewModel().getDescriptor().getFullName());
+
+    /**
+     * Renders the View tree caching the lines of the Views that extend this class.
+     */
+    private static final AbstractTreeStringRenderer<ParentView<?>, ParentView<?>> treeStringRenderer =
+            new AbstractTreeStringRenderer<>(fullNameAppender) {
+
+        @Override
+        protected List<? extends ParentView<?>> getChildren(ParentView<?> parent) {
+            return parent.getChildren();
+        }
+
+        @Override
+        protected ParentView<?> map(ParentView<?> value) {
+            return value;
+        }
+
+        @Override
+        protected @Nullable TreeStringCache getCache(ParentView<?> node) {
+            if (node instanceof AbstractParentView<?> view) {
+                return view.treeStringCache;
+            }
+            return null;
+        }
+    };
+
     private final ObservableList<ChildView<?>> modifiableChildren = FXCollections.observableArrayList();
 
     private final ObservableList<ChildView<?>> children =
             FXCollections.unmodifiableObservableList(modifiableChildren);
 
+    private final TreeStringCache treeStringCache = new TreeStringCache();
+
     public AbstractParentView(VM viewModel) {
         super(viewModel);
         modifiableChildren.addListener((ListChangeListener<ChildView<?>>) (e) -> {
@@ -59,6 +95,7 @@ public abstract class AbstractParentView<VM extends AbstractParentViewModel<?>>
                     }
                 }
             }
+            incrementTreeVersion();
         });
         ListBinder.bindContent(getViewModel().getModifiableChildren(), modifiableChildren,
                     (v) -> v.getViewModel());
@@ -75,9 +112,8 @@ public abstract class AbstractParentView<VM extends AbstractParentViewModel<?>>
         return new AbstractDepthFirstIterator<ParentView<?>, ParentView<?>>(this) {
 
             @Override
-            @SuppressWarnings("unchecked")
-            protected List<ParentView<?>> getChildren(ParentView<?> parent) {
-                return (List<ParentView<?>>) (List<?>) parent.getChildren();
+            protected List<? extends ParentView<?>> getChildren(ParentView<?> parent) {
+                return parent.getChildren();
             }
 
             @Override
@@ -92,9 +128,8 @@ public abstract class AbstractParentView<VM extends AbstractParentViewModel<?>>
         return new AbstractBreadthFirstIterator<ParentView<?>, ParentView<?>>(this) {
 
             @Override
-            @SuppressWarnings("unchecked")
-            protected List<ParentView<?>> getChildren(ParentView<?> parent) {
-                return (List<ParentView<?>>) (List<?>) parent.getChildren();
+            protected List<? extends ParentView<?>> getChildren(ParentView<?> parent) {
+                return parent.getChildren();
             }
 
             @Override
@@ -104,26 +139,45 @@ public abstract class AbstractParentView<VM extends AbstractParentViewModel<?>>
         };
     }
 
+    @Override
+    public Stream<ParentView<?>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public Stream<ParentView<?>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
     @Override
     public String toTreeString() {
-        return getViewModel().toTreeString(depthFirstIterator(),
-                (v, b) -> b.append(v.getViewModel().getDescriptor().getFullName()));
+        return toTreeString(fullNameAppender);
     }
 
     @Override
     public String toTreeString(BiConsumer<ParentView<?>, StringBuilder> appender) {
-        return getViewModel().toTreeString(depthFirstIterator(), appender);
+        return treeStringRenderer.render(this, appender);
     }
 
     @Override
     public void deinitializeTree() {
+        var event = new TreeDeinitializeEvent();
+        event.begin();
         if (logger.isDebugEnabled()) {
             var tree = toTreeString();
             logger.debug("{} Deinitializing this view tree:\n{}", getDescriptor().getLogPrefix(), tree);
         }
         var iterator = breadthFirstIterator();
+        int count = 0;
         while (iterator.hasNext()) {
             iterator.next().deinitialize();
+            count++;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setComponent(getDescriptor());
+            event.setComponentCount(count);
+            event.commit();
         }
     }
 
@@ -138,4 +192,30 @@ public abstract class AbstractParentView<VM extends AbstractParentViewModel<?>>
     protected ObservableList<ChildView<?>> getModifiableChildren() {
         return modifiableChildren;
     }
+
+    /**
+     * Increments the version of this subtree and of all the subtrees that contain it. The version is incremented
+     * when the children change and when the state of the component changes.
+     */
+    void incrementTreeVersion() {
+        treeStringCache.incrementVersion();
+        if (this instanceof ChildView<?> child && child.getParent() instanceof AbstractParentView<?> parent) {
+            parent.incrementTreeVersion();
+        }
+    }
+
+    private AbstractTreeSpliterator<ParentView<?>, ParentView<?>> spliterator() {
+        return new AbstractTreeSpliterator<ParentView<?>, ParentView<?>>(this) {
+
+            @Override
+            protected List<? extends ParentView<?>> getChildren(ParentView<?> parent) {
+                return parent.getChildren();
+            }
+
+            @Override
+            protected ParentView<?> map(ParentView<?> value) {
+                return value;
+            }
+        };
+    }
 }
@@ -19,13 +19,28 @@ package com.techsenger.patternfx.mvvm;
 import com.techsenger.annotations.Nullable;
 import com.techsenger.annotations.Unmodifiable;
 import com.techsenger.patternfx.core.AbstractBreadthFirstIterator;
+import com.techsenger.patternfx.core.AbstractComponentHistory;
 import com.techsenger.patternfx.core.AbstractDepthFirstIterator;
+import com.techsenger.patternfx.core.AbstractTreeHistoryBundler;
+import com.techsenger.patternfx.core.AbstractTreeSnapshotter;
+import com.techsenger.patternfx.core.AbstractTreeSpliterator;
+import com.techsenger.patternfx.core.AbstractTreeStringRenderer;
+import com.techsenger.patternfx.core.CompactTreeSnapshot;
+import com.techsenger.patternfx.core.ComponentState;
+import com.techsenger.patternfx.core.DescriptorBase;
+import com.techsenger.patternfx.core.HistoryCodecResolver;
+import com.techsenger.patternfx.core.TreeHistoryBundle;
 import com.techsenger.patternfx.core.TreeIterator;
+import com.techsenger.patternfx.core.TreeSnapshot;
+import com.techsenger.patternfx.core.TreeStringCache;
 import com.techsenger.toolkit.fx.value.ObservableSource;
 import com.techsenger.toolkit.fx.value.SimpleObservableSource;
 import java.util.List;
 import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 /**
@@ -35,6 +50,91 @@ import javafx.collections.ObservableList;
 public abstract class AbstractParentViewModel<C extends Composer> extends AbstractViewModel
         implements ParentViewModel<C> {
 
+    private static final BiConsumer<ParentViewModel<?>, StringBuilder> fullNameAppender =
+            (vm, b) -> b.append(vm.getDescriptor().getFullName());
+
+    /**
+     * Renders the ViewModel tree caching the lines of the ViewModels that extend this class.
+     */
+    private static final AbstractTreeStringRenderer<ParentViewModel<?>, ParentViewModel<?>> treeStringRenderer =
+            new AbstractTreeStringRenderer<>(fullNameAppender) {
+
+        @Override
+        protected List<? extends ParentViewModel<?>> getChildren(ParentViewModel<?> parent) {
+            return parent.getChildren();
+        }
+
+        @Override
+        protected ParentViewModel<?> map(ParentViewModel<?> value) {
+            return value;
+        }
+
+        @Override
+        protected @Nullable TreeStringCache getCache(ParentViewModel<?> node) {
+            if (node instanceof AbstractParentViewModel<?> viewModel) {
+                return viewModel.treeStringCache;
+            }
+            return null;
+        }
+    };
+
+    private static final AbstractTreeSnapshotter<ParentViewModel<?>> treeSnapshotter =
+            new AbstractTreeSnapshotter<>() {
+
+        @Override
+        protected List<? extends ParentViewModel<?>> getChildren(ParentViewModel<?> parent) {
+            return parent.getChildren();
+        }
+
+        @Override
+        protected DescriptorBase getDescriptor(ParentViewModel<?> node) {
+            return node.getDescriptor();
+        }
+
+        @Override
+        protected long getVersion(ParentViewModel<?> node) {
+            if (node instanceof AbstractParentViewModel<?> viewModel) {
+                return viewModel.treeStringCache.getVersion();
+            }
+            return -1;
+        }
+    };
+
+    private static final AbstractTreeHistoryBundler<ParentViewModel<?>> treeHistoryBundler =
+            new AbstractTreeHistoryBundler<>() {
+
+        @Override
+        protected List<? extends ParentViewModel<?>> getChildren(ParentViewModel<?> parent) {
+            return parent.getChildren();
+        }
+
+        @Override
+        protected DescriptorBase getDescriptor(ParentViewModel<?> node) {
+            return node.getDescriptor();
+        }
+
+        @Override
+        protected @Nullable AbstractComponentHistory getHistory(ParentViewModel<?> node) {
+            if (node instanceof AbstractViewModel viewModel) {
+                if (viewModel.getHistory() != null
+                        && viewModel.getDescriptor().getState() == ComponentState.INITIALIZED) {
+                    viewModel.saveHistory();
+                }
+                return viewModel.getHistory();
+            }
+            return null;
+        }
+
+        @Override
+        protected boolean restoreHistory(ParentViewModel<?> node, AbstractComponentHistory history) {
+            if (node instanceof AbstractViewModel viewModel && history instanceof ComponentHistory componentHistory) {
+                viewModel.applyHistory(componentHistory);
+                return true;
+            }
+            return false;
+        }
+    };
+
     private @Nullable C composer;
 
     private final ObservableList<ChildViewModel<?>> modifiableChildren = FXCollections.observableArrayList();
@@ -44,8 +144,11 @@ public abstract class AbstractParentViewModel<C extends Composer> extends Abstra
 
     private final ObservableSource<Void> requestDeinitializeTree = new SimpleObservableSource<>();
 
+    private final TreeStringCache treeStringCache = new TreeStringCache();
+
     public AbstractParentViewModel() {
         super();
+        modifiableChildren.addListener((ListChangeListener<ChildViewModel<?>>) (e) -> incrementTreeVersion());
     }
 
     @Override
@@ -63,9 +166,8 @@ public abstract class AbstractParentViewModel<C extends Composer> extends Abstra
         return new AbstractDepthFirstIterator<ParentViewModel<?>, ParentViewModel<?>>(this) {
 
             @Override
-            @SuppressWarnings("unchecked")
-            protected List<ParentViewModel<?>> getChildren(ParentViewModel<?> parent) {
-                return (List<ParentViewModel<?>>) (List<?>) parent.getChildren();
+            protected List<? extends ParentViewModel<?>> getChildren(ParentViewModel<?> parent) {
+                return parent.getChildren();
             }
 
             @Override
@@ -80,9 +182,8 @@ public abstract class AbstractParentViewModel<C extends Composer> extends Abstra
         return new AbstractBreadthFirstIterator<ParentViewModel<?>, ParentViewModel<?>>(this) {
 
             @Override
-            @SuppressWarnings("unchecked")
-            protected List<ParentViewModel<?>> getChildren(ParentViewModel<?> parent) {
-                return (List<ParentViewModel<?>>) (List<?>) parent.getChildren();
+            protected List<? extends ParentViewModel<?>> getChildren(ParentViewModel<?> parent) {
+                return parent.getChildren();
             }
 
             @Override
@@ -92,14 +193,35 @@ public abstract class AbstractParentViewModel<C extends Composer> extends Abstra
         };
     }
 
+    @Override
+    public Stream<ParentViewModel<?>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public Stream<ParentViewModel<?>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
     @Override
     public String toTreeString() {
-        return toTreeString(depthFirstIterator(), (vm, b) -> b.append(vm.getDescriptor().getFullName()));
+        return toTreeString(fullNameAppender);
     }
 
     @Override
     public String toTreeString(BiConsumer<ParentViewModel<?>, StringBuilder> appender) {
-        return toTreeString(depthFirstIterator(), appender);
+        return treeStringRenderer.render(this, appender);
+    }
+
+    @Override
+    public TreeSnapshot captureSnapshot(@Nullable TreeSnapshot previous) {
+        return treeSnapshotter.capture(this, previous);
+    }
+
+    @Override
+    public CompactTreeSnapshot captureCompactSnapshot() {
+        return CompactTreeSnapshot.<ParentViewModel<?>>capture(this, ParentViewModel::getChildren,
+                ParentViewModel::getDescriptor);
     }
 
     @Override
@@ -107,6 +229,16 @@ public abstract class AbstractParentViewModel<C extends Composer> extends Abstra
         requestDeinitializeTree.next(null);
     }
 
+    @Override
+    public TreeHistoryBundle saveTreeHistory(HistoryCodecResolver resolver) {
+        return treeHistoryBundler.save(this, resolver);
+    }
+
+    @Override
+    public int restoreTreeHistory(TreeHistoryBundle bundle, HistoryCodecResolver resolver) {
+        return treeHistoryBundler.restore(this, bundle, resolver);
+    }
+
     @SuppressWarnings("unchecked")
     protected void setComposer(@Nullable Composer composer) {
         this.composer = (C) composer;
@@ -116,21 +248,33 @@ public abstract class AbstractParentViewModel<C extends Composer> extends Abstra
         return modifiableChildren;
     }
 
-    <T> String toTreeString(TreeIterator<T> iterator, BiConsumer<T, StringBuilder> appender) {
-        var builder = new StringBuilder();
-        var sep = System.lineSeparator();
-        while (iterator.hasNext()) {
-            var c = iterator.next();
-            if (builder.length() > 0) {
-                builder.append(sep);
-            }
-            builder.append("    ".repeat(iterator.getDepth()));
-            appender.accept(c, builder);
+    ObservableSource<Void> getRequestDeinitializeTree() {
+        return requestDeinitializeTree;
+    }
+
+    /**
+     * Increments the version of this subtree and of all the subtrees that contain it. The version is incremented
+     * when the children change and when the state of the component changes.
+     */
+    void incrementTreeVersion() {
+        treeStringCache.incrementVersion();
+        if (this instanceof ChildViewModel<?> child && child.getParent() instanceof AbstractParentViewModel<?> parent) {
+            parent.incrementTreeVersion();
         }
-        return builder.toString();
     }
 
-    ObservableSource<Void> getRequestDeinitializeTree() {
-        return requestDeinitializeTree;
+    private AbstractTreeSpliterator<ParentViewModel<?>, ParentViewModel<?>> spliterator() {
+        return new AbstractTreeSpliterator<ParentViewModel<?>, ParentViewModel<?>>(this) {
+
+            @Override
+            protected List<? extends ParentViewModel<?>> getChildren(ParentViewModel<?> parent) {
+                return parent.getChildren();
+            }
+
+            @Override
+            protected ParentViewModel<?> map(ParentViewModel<?> value) {
+                return value;
+            }
+        };
     }
 }
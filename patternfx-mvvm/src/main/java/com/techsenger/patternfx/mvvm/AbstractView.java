@@ -16,7 +16,13 @@
 
 package com.techsenger.patternfx.mvvm;
 
+import com.techsenger.patternfx.core.ComponentNameIndex;
+import com.techsenger.patternfx.core.ComponentRegistry;
 import com.techsenger.patternfx.core.ComponentState;
+import com.techsenger.patternfx.core.LifecyclePhase;
+import com.techsenger.patternfx.core.LifecycleTimings;
+import com.techsenger.patternfx.core.jfr.ComponentDeinitializeEvent;
+import com.techsenger.patternfx.core.jfr.ComponentInitializeEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,19 +52,41 @@ public abstract class AbstractView<T extends AbstractViewModel> implements View<
             if (descriptor.getState() != ComponentState.CREATING) {
                 throw new IllegalStateException("Unexpected state of the view - " + descriptor.getState().name());
             }
+            ComponentRegistry.register(descriptor, this);
+            var event = new ComponentInitializeEvent();
+            event.begin();
+            long startTime = LifecycleTimings.start();
             // pre-initialization
             preInitialize();
+            long time = LifecycleTimings.record(descriptor, LifecyclePhase.PRE_INITIALIZE, startTime);
             // initialization
-            descriptor.setState(ComponentState.INITIALIZING);
+            setState(ComponentState.INITIALIZING);
             viewModel.initialize();
+            time = LifecycleTimings.record(descriptor, LifecyclePhase.RESTORE_HISTORY, time);
             build();
+            time = LifecycleTimings.record(descriptor, LifecyclePhase.BUILD, time);
             bind();
+            time = LifecycleTimings.record(descriptor, LifecyclePhase.BIND, time);
             addListeners();
+            time = LifecycleTimings.record(descriptor, LifecyclePhase.ADD_LISTENERS, time);
             addHandlers();
-            descriptor.setState(ComponentState.INITIALIZED);
-            logger.debug("{} Initialized view", getDescriptor().getLogPrefix());
+            time = LifecycleTimings.record(descriptor, LifecyclePhase.ADD_HANDLERS, time);
+            setState(ComponentState.INITIALIZED);
+            ComponentNameIndex.add(descriptor, this);
+            if (logger.isDebugEnabled()) {
+                logger.debug("{} Initialized view", getDescriptor().getLogPrefix());
+            }
             // post-initialization
             postInitialize();
+            LifecycleTimings.record(descriptor, LifecyclePhase.POST_INITIALIZE, time);
+            LifecycleTimings.record(descriptor, LifecyclePhase.INITIALIZE, startTime);
+            event.end();
+            if (event.shouldCommit()) {
+                event.setComponent(descriptor);
+                event.setHistoryPolicy(viewModel.getHistoryPolicy());
+                event.setDepth(getDepth());
+                event.commit();
+            }
         } catch (Exception ex) {
             logger.error("{} Error initializing", getDescriptor().getLogPrefix(), ex);
         }
@@ -71,19 +99,41 @@ public abstract class AbstractView<T extends AbstractViewModel> implements View<
             if (descriptor.getState() != ComponentState.INITIALIZED) {
                 throw new IllegalStateException("Unexpected state of the view - " + descriptor.getState().name());
             }
+            var event = new ComponentDeinitializeEvent();
+            event.begin();
+            long startTime = LifecycleTimings.start();
             // pre-deinitialization
             preDeinitialize();
+            long time = LifecycleTimings.record(descriptor, LifecyclePhase.PRE_DEINITIALIZE, startTime);
             // deinitialization
-            descriptor.setState(ComponentState.DEINITIALIZING);
+            setState(ComponentState.DEINITIALIZING);
+            ComponentNameIndex.remove(descriptor, this);
             removeHandlers();
+            time = LifecycleTimings.record(descriptor, LifecyclePhase.REMOVE_HANDLERS, time);
             removeListeners();
+            time = LifecycleTimings.record(descriptor, LifecyclePhase.REMOVE_LISTENERS, time);
             unbind();
+            time = LifecycleTimings.record(descriptor, LifecyclePhase.UNBIND, time);
             unbuild();
+            time = LifecycleTimings.record(descriptor, LifecyclePhase.UNBUILD, time);
             viewModel.deinitialize();
-            descriptor.setState(ComponentState.DEINITIALIZED);
-            logger.debug("{} Deinitialized view", getDescriptor().getLogPrefix());
+            time = LifecycleTimings.record(descriptor, LifecyclePhase.SAVE_HISTORY, time);
+            setState(ComponentState.DEINITIALIZED);
+            ComponentRegistry.unregister(descriptor);
+            if (logger.isDebugEnabled()) {
+                logger.debug("{} Deinitialized view", getDescriptor().getLogPrefix());
+            }
             // post-deinitialization
             postDeinitialize();
+            LifecycleTimings.record(descriptor, LifecyclePhase.POST_DEINITIALIZE, time);
+            LifecycleTimings.record(descriptor, LifecyclePhase.DEINITIALIZE, startTime);
+            event.end();
+            if (event.shouldCommit()) {
+                event.setComponent(descriptor);
+                event.setHistoryPolicy(viewModel.getHistoryPolicy());
+                event.setDepth(getDepth());
+                event.commit();
+            }
         } catch (Exception ex) {
             logger.error("{} Error deinitializing", getDescriptor().getLogPrefix(), ex);
         }
@@ -165,4 +215,30 @@ public abstract class AbstractView<T extends AbstractViewModel> implements View<
     protected Descriptor getDescriptor() {
         return this.viewModel.getDescriptor();
     }
+
+    /**
+     * Sets the state of the component and increments the versions of the View and ViewModel trees.
+     */
+    private void setState(ComponentState state) {
+        getDescriptor().setState(state);
+        if (this instanceof AbstractParentView<?> parentView) {
+            parentView.incrementTreeVersion();
+        }
+        if (viewModel instanceof AbstractParentViewModel<?> parentViewModel) {
+            parentViewModel.incrementTreeVersion();
+        }
+    }
+
+    /**
+     * Returns the number of ancestors of this view.
+     */
+    private int getDepth() {
+        int depth = 0;
+        Object current = this.viewModel;
+        while (current instanceof ChildViewModel<?> child && child.getParent() != null) {
+            current = child.getParent();
+            depth++;
+        }
+        return depth;
+    }
 }
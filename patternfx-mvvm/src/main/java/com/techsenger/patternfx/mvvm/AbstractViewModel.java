@@ -17,14 +17,22 @@
 package com.techsenger.patternfx.mvvm;
 
 import com.techsenger.annotations.Nullable;
+import com.techsenger.patternfx.core.AsyncHistoryProvider;
+import com.techsenger.patternfx.core.ComponentState;
 import com.techsenger.patternfx.core.HistoryPolicy;
 import static com.techsenger.patternfx.core.HistoryPolicy.ALL;
 import static com.techsenger.patternfx.core.HistoryPolicy.APPEARANCE;
 import static com.techsenger.patternfx.core.HistoryPolicy.DATA;
 import static com.techsenger.patternfx.core.HistoryPolicy.NONE;
 import com.techsenger.patternfx.core.HistoryProvider;
+import com.techsenger.patternfx.core.HistorySink;
+import com.techsenger.patternfx.core.jfr.HistoryRestoreEvent;
+import com.techsenger.patternfx.core.jfr.HistorySaveEvent;
 import com.techsenger.toolkit.fx.value.ObservableSource;
 import com.techsenger.toolkit.fx.value.SimpleObservableSource;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import org.slf4j.Logger;
@@ -46,6 +54,10 @@ public abstract class AbstractViewModel implements ViewModel {
 
     private @Nullable HistoryProvider<? extends ComponentHistory> historyProvider;
 
+    private @Nullable CompletableFuture<? extends ComponentHistory> historyFuture;
+
+    private @Nullable HistorySink<? extends ComponentHistory> historySink;
+
     private @Nullable ComponentHistory history;
 
     public AbstractViewModel() {
@@ -77,10 +89,44 @@ public abstract class AbstractViewModel implements ViewModel {
         requestDeinitialize.next(null);
     }
 
+    /**
+     * Sets the provider of the history. It can't be used together with the asynchronous history provider.
+     *
+     * @param historyProvider the provider or {@code null}
+     */
     protected void setHistoryProvider(@Nullable HistoryProvider<? extends ComponentHistory> historyProvider) {
+        if (historyProvider != null && this.historyFuture != null) {
+            throw new IllegalStateException("Async history provider is already set");
+        }
         this.historyProvider = historyProvider;
     }
 
+    /**
+     * Starts loading the history. This method should be called in the constructor, so the history is loaded while
+     * the view builds its nodes. It can't be used together with the synchronous history provider.
+     *
+     * @param asyncHistoryProvider the provider
+     */
+    protected void setAsyncHistoryProvider(AsyncHistoryProvider<? extends ComponentHistory> asyncHistoryProvider) {
+        if (this.historyProvider != null) {
+            throw new IllegalStateException("History provider is already set");
+        }
+        if (this.historyFuture != null) {
+            throw new IllegalStateException("Async history provider is already set");
+        }
+        this.historyFuture = asyncHistoryProvider.provide();
+    }
+
+    /**
+     * Sets the sink that receives the history after the view model state was saved into it. The sink must accept the
+     * type of the history returned by the history provider.
+     *
+     * @param historySink the sink or {@code null}
+     */
+    protected void setHistorySink(@Nullable HistorySink<? extends ComponentHistory> historySink) {
+        this.historySink = historySink;
+    }
+
     /**
      * Returns the history of the view.
      */
@@ -98,11 +144,17 @@ public abstract class AbstractViewModel implements ViewModel {
     }
 
     protected final void restoreHistory() {
+        var event = new HistoryRestoreEvent();
+        event.begin();
         var policy = getHistoryPolicy();
-        logger.debug("{} History policy during restore: {}", getDescriptor().getLogPrefix(), policy);
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} History policy during restore: {}", getDescriptor().getLogPrefix(), policy);
+        }
         if (policy != NONE && history != null) {
             if (history.isNew()) {
-                logger.debug("{} History is new. Skipping restoration", getDescriptor().getLogPrefix());
+                if (logger.isDebugEnabled()) {
+                    logger.debug("{} History is new. Skipping restoration", getDescriptor().getLogPrefix());
+                }
             } else {
                 switch (policy) {
                     case DATA -> restoreData();
@@ -115,6 +167,13 @@ public abstract class AbstractViewModel implements ViewModel {
                 }
             }
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setComponent(descriptor);
+            event.setHistoryPolicy(policy);
+            event.setRestored(policy != NONE && history != null && !history.isNew());
+            event.commit();
+        }
     }
 
     /**
@@ -135,12 +194,17 @@ public abstract class AbstractViewModel implements ViewModel {
     protected void deinitialize() {
         if (this.history != null) {
             saveHistory();
+            passHistoryToSink();
         }
     }
 
     protected final void saveHistory() {
+        var event = new HistorySaveEvent();
+        event.begin();
         var policy = getHistoryPolicy();
-        logger.debug("{} History policy during save: {}", getDescriptor().getLogPrefix(), policy);
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} History policy during save: {}", getDescriptor().getLogPrefix(), policy);
+        }
         switch (policy) {
             case DATA -> saveData();
             case APPEARANCE -> saveAppearance();
@@ -151,6 +215,28 @@ public abstract class AbstractViewModel implements ViewModel {
             case NONE -> { }
             default -> throw new AssertionError();
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setComponent(descriptor);
+            event.setHistoryPolicy(policy);
+            event.commit();
+        }
+    }
+
+    /**
+     * Saves the current persistent state of the initialized view model into its history and passes the history to
+     * the history sink, as it is done during deinitialization. A view model can call this method after important
+     * changes, so that a sink backed by a {@link com.techsenger.patternfx.core.HistoryJournal} persists the state
+     * continuously and the state survives a crash of the application.
+     */
+    protected final void checkpointHistory() {
+        if (getDescriptor().getState() != ComponentState.INITIALIZED) {
+            throw new IllegalStateException("Unexpected state of the component - " + getDescriptor().getState().name());
+        }
+        if (this.history != null) {
+            saveHistory();
+            passHistoryToSink();
+        }
     }
 
     /**
@@ -179,10 +265,55 @@ public abstract class AbstractViewModel implements ViewModel {
         if (this.historyProvider != null) {
             this.history = this.historyProvider.provide();
             this.historyProvider = null;
+        } else if (this.historyFuture != null) {
+            try {
+                this.history = this.historyFuture.join();
+            } catch (CompletionException | CancellationException ex) {
+                logger.error("{} Error loading history", getDescriptor().getLogPrefix(), ex);
+            }
+            this.historyFuture = null;
         }
     }
 
     ObservableSource<Void> getRequestDeinitialize() {
         return requestDeinitialize;
     }
+
+    /**
+     * Sets the history restored from a bundle. If the view model is initialized, its persistent state is restored
+     * from the history immediately, otherwise the history is used during initialization instead of the history
+     * provider.
+     */
+    void applyHistory(ComponentHistory history) {
+        this.history = history;
+        this.historyProvider = null;
+        if (this.historyFuture != null) {
+            // the loaded history is replaced by the bundle, so loading it is not needed
+            this.historyFuture.cancel(false);
+            this.historyFuture = null;
+        }
+        if (getDescriptor().getState() == ComponentState.INITIALIZED) {
+            restoreHistory();
+        }
+    }
+
+    private void passHistoryToSink() {
+        if (this.history == null || this.historySink == null) {
+            return;
+        }
+        if (this.history.isDirty(getHistoryPolicy())) {
+            offerHistory(this.historySink, this.history);
+            this.history.clearDirty();
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("{} History has no changes to persist, skipping the sink", getDescriptor().getLogPrefix());
+        }
+    }
+
+    /**
+     * The sink receives the history created by the provider, so their types match.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends ComponentHistory> void offerHistory(HistorySink<T> sink, ComponentHistory history) {
+        sink.accept((T) history);
+    }
 }
@@ -17,6 +17,10 @@
 package com.techsenger.patternfx.mvvm;
 
 import com.techsenger.patternfx.core.AbstractComponentHistory;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 
 /**
  *
@@ -24,14 +28,29 @@ import com.techsenger.patternfx.core.AbstractComponentHistory;
  */
 public class ComponentHistory extends AbstractComponentHistory {
 
-    private boolean isNew = true;
+    private static final long serialVersionUID = 8694213987669586119L;
+
+    /**
+     * The {@code isNew} flag was declared by this class before it was moved to {@link AbstractComponentHistory}. It
+     * is still written as a field of this class, so the serialized form stays compatible in both directions.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("isNew", boolean.class)
+    };
 
     @Override
-    public boolean isNew() {
-        return isNew;
+    protected void setNew(boolean value) {
+        super.setNew(value);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        var fields = out.putFields();
+        fields.put("isNew", isNew());
+        out.writeFields();
     }
 
-    void setNew(boolean value) {
-        this.isNew = value;
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        var fields = in.readFields();
+        setNew(fields.get("isNew", true));
     }
 }
@@ -20,6 +20,7 @@ import com.techsenger.annotations.Unmodifiable;
 import com.techsenger.patternfx.core.TreeIterator;
 import java.util.Iterator;
 import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 import javafx.collections.ObservableList;
 
 /**
@@ -49,6 +50,22 @@ public interface ParentView<VM extends ParentViewModel<?>> extends View<VM> {
      */
     TreeIterator<ParentView<?>> breadthFirstIterator();
 
+    /**
+     * Returns a sequential stream of this View and all of its descendants in depth-first order.
+     *
+     * @return a stream over this View and all of its descendants
+     */
+    Stream<ParentView<?>> stream();
+
+    /**
+     * Returns a parallel stream of this View and all of its descendants. The tree is split at subtree
+     * boundaries, so the stream can be processed in the common {@link java.util.concurrent.ForkJoinPool}. The
+     * stream is intended for read-only operations, the tree must not be modified until the stream is processed.
+     *
+     * @return a parallel stream over this View and all of its descendants
+     */
+    Stream<ParentView<?>> parallelStream();
+
     /**
      * Returns a string representation of this View and all its descendants as a sub-tree with this
      * View as root.
@@ -18,9 +18,14 @@ package com.techsenger.patternfx.mvvm;
 
 import com.techsenger.annotations.Nullable;
 import com.techsenger.annotations.Unmodifiable;
+import com.techsenger.patternfx.core.CompactTreeSnapshot;
+import com.techsenger.patternfx.core.HistoryCodecResolver;
+import com.techsenger.patternfx.core.TreeHistoryBundle;
 import com.techsenger.patternfx.core.TreeIterator;
+import com.techsenger.patternfx.core.TreeSnapshot;
 import java.util.Iterator;
 import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 import javafx.collections.ObservableList;
 
 /**
@@ -52,6 +57,22 @@ public interface ParentViewModel<C extends Composer> extends ViewModel {
      */
     TreeIterator<ParentViewModel<?>> breadthFirstIterator();
 
+    /**
+     * Returns a sequential stream of this ViewModel and all of its descendants in depth-first order.
+     *
+     * @return a stream over this ViewModel and all of its descendants
+     */
+    Stream<ParentViewModel<?>> stream();
+
+    /**
+     * Returns a parallel stream of this ViewModel and all of its descendants. The tree is split at subtree
+     * boundaries, so the stream can be processed in the common {@link java.util.concurrent.ForkJoinPool}. The
+     * stream is intended for read-only operations, the tree must not be modified until the stream is processed.
+     *
+     * @return a parallel stream over this ViewModel and all of its descendants
+     */
+    Stream<ParentViewModel<?>> parallelStream();
+
     /**
      * Returns a string representation of this ViewModel and all its descendants as a sub-tree with this
      * ViewModel as root.
@@ -73,6 +94,24 @@ public interface ParentViewModel<C extends Composer> extends ViewModel {
      */
     String toTreeString(BiConsumer<ParentViewModel<?>, StringBuilder> appender);
 
+    /**
+     * Captures the snapshot of the ViewModel subtree with this ViewModel as root. The subtrees that haven't changed
+     * since the previous snapshot are shared with it, so the snapshots can be compared with
+     * {@link com.techsenger.patternfx.core.TreeDiff} at the cost proportional to the number of changes.
+     *
+     * @param previous the previous snapshot of this subtree or {@code null}
+     * @return the snapshot
+     */
+    TreeSnapshot captureSnapshot(@Nullable TreeSnapshot previous);
+
+    /**
+     * Captures the array-based snapshot of the ViewModel subtree with this ViewModel as root in one pass. The
+     * snapshot can be used by any thread.
+     *
+     * @return the snapshot
+     */
+    CompactTreeSnapshot captureCompactSnapshot();
+
     /**
      * Deinitializes this ViewModel and all its descendants as a sub-tree with this ViewModel as the root.
      *
@@ -80,4 +119,24 @@ public interface ParentViewModel<C extends Composer> extends ViewModel {
      * followed by its children level by level.
      */
     void requestDeinitializeTree();
+
+    /**
+     * Saves the state of this ViewModel and all its descendants into their histories and writes the histories
+     * together with the structure of the subtree into one buffer.
+     *
+     * @param resolver the resolver of the history codecs
+     * @return the bundle
+     */
+    TreeHistoryBundle saveTreeHistory(HistoryCodecResolver resolver);
+
+    /**
+     * Restores the histories of the bundle into this ViewModel and its descendants that match the ViewModels of the
+     * bundle by name and position. The initialized ViewModels restore their state immediately, the ViewModels that
+     * are not initialized yet use the history during initialization.
+     *
+     * @param bundle the bundle
+     * @param resolver the resolver of the history codecs
+     * @return the number of the restored ViewModels
+     */
+    int restoreTreeHistory(TreeHistoryBundle bundle, HistoryCodecResolver resolver);
 }
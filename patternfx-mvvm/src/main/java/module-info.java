@@ -18,6 +18,7 @@ module com.techsenger.patternfx.mvvm {
     requires org.slf4j;
     requires com.techsenger.annotations;
     requires com.techsenger.patternfx.core;
+    requires jdk.jfr;
     requires com.techsenger.toolkit.fx;
     requires javafx.base;
     requires javafx.graphics;